@@ -0,0 +1,142 @@
+package ru.practicum.shareit.benchmark;
+
+import db.migration.V4__CreateIdSequences;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the database with generated users, items, bookings and comments through batched JDBC inserts.
+ * Ids are assigned explicitly, so user {@code i} owns items {@code i}, {@code i + users}, {@code i + 2 * users}...
+ */
+public class BenchmarkDataSet {
+    public static final String[] ITEM_NAMES = {
+            "Дрель", "Отвертка", "Перфоратор", "Лестница", "Палатка",
+            "Велосипед", "Телескоп", "Проектор", "Гитара", "Самокат"
+    };
+
+    private static final String[] ITEM_DESCRIPTIONS = {
+            "Простая", "Аккумуляторная", "Профессиональная", "Складная", "Новая"
+    };
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDateTime BASE_DATE = LocalDateTime.now().withNano(0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final int users;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+
+    public BenchmarkDataSet(JdbcTemplate jdbcTemplate, int users, int items, int bookings, int comments) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.items = items;
+        this.bookings = bookings;
+        this.comments = comments;
+    }
+
+    public void seed() {
+        insert("insert into users (id, name, email) values (?, ?, ?)", users, id -> new Object[]{
+                id, "user" + id, "user" + id + "@shareit.ru"
+        });
+
+        insert("insert into items (id, name, description, available, owner_id) values (?, ?, ?, ?, ?)", items, id -> new Object[]{
+                id,
+                ITEM_NAMES[(int) (id % ITEM_NAMES.length)] + " " + id,
+                ITEM_DESCRIPTIONS[(int) (id % ITEM_DESCRIPTIONS.length)] + " вещь для дома",
+                id % 10 != 0,
+                ownerOf(id)
+        });
+
+        insert("insert into bookings (id, start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)", bookings, id -> {
+            long itemId = 1 + random.nextInt(items);
+            LocalDateTime start = BASE_DATE.plusHours(random.nextInt(-2 * 365 * 24, 365 * 24));
+            return new Object[]{
+                    id,
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusDays(1 + random.nextInt(7))),
+                    itemId,
+                    bookerOf(itemId),
+                    status()
+            };
+        });
+
+        insert("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)", comments, id -> {
+            long itemId = 1 + random.nextInt(items);
+            return new Object[]{
+                    id,
+                    "Комментарий " + id,
+                    itemId,
+                    bookerOf(itemId),
+                    Timestamp.valueOf(BASE_DATE.minusHours(random.nextInt(365 * 24)))
+            };
+        });
+
+        restartIdentity("users", users);
+        restartIdentity("items", items);
+        restartSequence("users_seq", users);
+        restartSequence("items_seq", items);
+        restartIdentity("bookings", bookings);
+        restartIdentity("comments", comments);
+
+        jdbcTemplate.execute("analyze");
+    }
+
+    public long ownerOf(long itemId) {
+        return 1 + (itemId - 1) % users;
+    }
+
+    private long bookerOf(long itemId) {
+        long bookerId = 1 + random.nextInt(users);
+        return bookerId == ownerOf(itemId) ? 1 + bookerId % users : bookerId;
+    }
+
+    private String status() {
+        int value = random.nextInt(100);
+        if (value < 70) {
+            return "APPROVED";
+        } else if (value < 85) {
+            return "WAITING";
+        } else if (value < 95) {
+            return "REJECTED";
+        } else {
+            return "CANCELED";
+        }
+    }
+
+    private void insert(String sql, int amount, RowGenerator generator) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= amount; id++) {
+            batch.add(generator.row(id));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private void restartIdentity(String table, int amount) {
+        jdbcTemplate.execute(String.format("alter table %s alter column id restart with %d", table, amount + 1));
+    }
+
+    private void restartSequence(String sequence, int amount) {
+        jdbcTemplate.execute(String.format(
+                "alter sequence %s restart with %d", sequence, amount + V4__CreateIdSequences.ALLOCATION_SIZE));
+    }
+
+    @FunctionalInterface
+    private interface RowGenerator {
+        Object[] row(long id);
+    }
+}
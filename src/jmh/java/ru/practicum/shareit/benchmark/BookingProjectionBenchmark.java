@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingQuery;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.service.MapperService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a booking page read as entities with the same page read as {@code BookingView} projections.
+ * Both are mapped to DTOs inside a read-only transaction, the way the service does it.
+ * The default dataset gives every user about a hundred bookings, so the 10k pages need fewer users,
+ * e.g. {@code -p users=50}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingProjectionBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private BookingRepository bookingRepository;
+    private MapperService mapperService;
+    private TransactionTemplate transactionTemplate;
+    private SplittableRandom random;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState applicationState) {
+        bookingRepository = applicationState.getBean(BookingRepository.class);
+        mapperService = applicationState.getBean(MapperService.class);
+        transactionTemplate = new TransactionTemplate(applicationState.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        random = new SplittableRandom(7);
+        users = applicationState.users;
+    }
+
+    @Benchmark
+    public List<BookingDto> entities() {
+        BookingQuery query = nextQuery();
+        return transactionTemplate.execute(status -> bookingRepository.findAll(query).stream()
+                .map(mapperService::toBookingDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BookingDto> views() {
+        BookingQuery query = nextQuery();
+        return transactionTemplate.execute(status -> bookingRepository.findViews(query).stream()
+                .map(mapperService::toBookingDto)
+                .collect(Collectors.toList()));
+    }
+
+    private BookingQuery nextQuery() {
+        return BookingQuery.byBooker(1L + random.nextInt(users), BookingState.ALL, LocalDateTime.now())
+                .page(0, size);
+    }
+}
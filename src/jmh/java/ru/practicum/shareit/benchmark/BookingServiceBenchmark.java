@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+    public String state;
+
+    private BookingService bookingService;
+    private SplittableRandom random;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState applicationState) {
+        bookingService = applicationState.getBean(BookingService.class);
+        random = new SplittableRandom(7);
+        users = applicationState.users;
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookings() {
+        return bookingService.getBookings(1L + random.nextInt(users), state, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookings() {
+        return bookingService.getOwnerBookings(1L + random.nextInt(users), state, 0, 20);
+    }
+}
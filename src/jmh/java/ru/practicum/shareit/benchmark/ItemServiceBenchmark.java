@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemServiceBenchmark {
+    private ItemService itemService;
+    private SplittableRandom random;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState state) {
+        itemService = state.getBean(ItemService.class);
+        random = new SplittableRandom(7);
+        users = state.users;
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllItems() {
+        return itemService.getAllItems(1L + random.nextInt(users), 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        String text = BenchmarkDataSet.ITEM_NAMES[random.nextInt(BenchmarkDataSet.ITEM_NAMES.length)];
+        return itemService.searchItems(text, random.nextInt(100), 20);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.service.MapperService;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private MapperService mapperService;
+    private Booking booking;
+    private Item item;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        UserMapper userMapper = new UserMapper();
+        mapperService = new MapperService(
+                userMapper,
+                new ItemMapper(),
+                new BookingMapper(),
+                new CommentMapper(userMapper),
+                new ItemRequestMapper()
+        );
+
+        User owner = new User(1L, "owner", "owner@shareit.ru");
+        User booker = new User(2L, "booker", "booker@shareit.ru");
+        LocalDateTime now = LocalDateTime.now();
+
+        item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        booking = new Booking(1L, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED, now, 0L);
+        comments = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> mapperService.toCommentDto(new Comment(id, "Комментарий " + id, item, booker, now)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return mapperService.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return mapperService.toItemDto(item, comments);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import ru.practicum.shareit.error.ErrorHandler;
+import ru.practicum.shareit.error.ErrorResponse;
+import ru.practicum.shareit.user.exceptions.UserNotFound;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throws a not-found failure from {@code depth} frames below the handler, which stands in for the controller,
+ * proxy and filter frames of a real request, and turns it into an error response.
+ * {@code withStackTrace} is the exception as it was before it became a {@code DomainException}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+    private static final String MESSAGE = "Пользователь с данным id не найден";
+
+    @Param({"20", "100"})
+    public int depth;
+
+    private ErrorHandler errorHandler;
+
+    @Setup
+    public void setUp() {
+        errorHandler = new ErrorHandler(new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()))
+                .getBeanProvider(MeterRegistry.class));
+    }
+
+    @Benchmark
+    public ErrorResponse withStackTrace() {
+        return handle(() -> new UserNotFoundWithStackTrace(MESSAGE));
+    }
+
+    @Benchmark
+    public ErrorResponse stackless() {
+        return handle(() -> new UserNotFound(MESSAGE));
+    }
+
+    private ErrorResponse handle(Supplier<RuntimeException> exception) {
+        try {
+            throwAt(depth, exception);
+            return null;
+        } catch (RuntimeException e) {
+            return errorHandler.handleNotFoundException(e);
+        }
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+
+        throwAt(depth - 1, exception);
+    }
+
+    private static class UserNotFoundWithStackTrace extends RuntimeException {
+        private UserNotFoundWithStackTrace(String message) {
+            super(message);
+        }
+    }
+}
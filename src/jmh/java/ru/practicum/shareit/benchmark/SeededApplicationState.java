@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+
+/**
+ * Application context backed by an embedded H2 database seeded with realistic volumes.
+ * The volumes can be reduced for a quick run, e.g. {@code -p bookings=100000}.
+ */
+@State(Scope.Benchmark)
+public class SeededApplicationState {
+    @Param("10000")
+    public int users;
+
+    @Param("100000")
+    public int items;
+
+    @Param("1000000")
+    public int bookings;
+
+    @Param("100000")
+    public int comments;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+                );
+
+        new BenchmarkDataSet(context.getBean(JdbcTemplate.class), users, items, bookings, comments).seed();
+
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(ItemBookingSummaryService.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
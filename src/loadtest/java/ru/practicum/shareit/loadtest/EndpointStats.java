@@ -0,0 +1,65 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and response classes collected for one endpoint by one worker thread; merged when the run ends.
+ */
+public class EndpointStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long clientErrors;
+    private long serverErrors;
+    private long failures;
+
+    public void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+
+        if (status >= 500) {
+            serverErrors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        }
+    }
+
+    public void recordFailure() {
+        failures++;
+    }
+
+    public void merge(EndpointStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], 200);
+        }
+        clientErrors += other.clientErrors;
+        serverErrors += other.serverErrors;
+        failures += other.failures;
+    }
+
+    public String format(String endpoint, double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        return String.format("%-36s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d",
+                endpoint, count, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1_000_000.0,
+                clientErrors, serverErrors, failures);
+    }
+
+    public static String header() {
+        return String.format("%-36s %9s %10s %9s %9s %9s %9s %7s %7s %7s",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "4xx", "5xx", "failed");
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays a weighted mix of read and write scenarios against a running application and prints
+ * throughput and p50/p95/p99 latency per endpoint. Requests sent during the warmup are not recorded.
+ */
+public class LoadDriver {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String[] BOOKING_STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"};
+
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ZipfDistribution activeUsers;
+    private final ZipfDistribution popularItems;
+
+    public LoadDriver(LoadTestSettings settings) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        SplittableRandom random = new SplittableRandom(settings.getSeed() + 1);
+        this.activeUsers = new ZipfDistribution(settings.getUsers(), 0.9, random);
+        this.popularItems = new ZipfDistribution(settings.getItems(), 1.0, random);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(new LoadTestSettings(args)).run();
+    }
+
+    public void run() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getThreads());
+        long warmupEnd = System.nanoTime() + settings.getWarmup().toNanos();
+        long end = warmupEnd + settings.getDuration().toNanos();
+
+        List<Future<Map<String, EndpointStats>>> workers = new ArrayList<>();
+        for (int i = 0; i < settings.getThreads(); i++) {
+            long seed = settings.getSeed() * 31 + i;
+            workers.add(executor.submit(() -> new Worker(new SplittableRandom(seed), warmupEnd, end).call()));
+        }
+
+        Map<String, EndpointStats> total = new TreeMap<>();
+        for (Future<Map<String, EndpointStats>> worker : workers) {
+            worker.get().forEach((endpoint, stats) ->
+                    total.computeIfAbsent(endpoint, key -> new EndpointStats()).merge(stats));
+        }
+        executor.shutdown();
+
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        EndpointStats all = new EndpointStats();
+        System.out.println(EndpointStats.header());
+        total.forEach((endpoint, stats) -> {
+            System.out.println(stats.format(endpoint, seconds));
+            all.merge(stats);
+        });
+        System.out.println(all.format("TOTAL", seconds));
+    }
+
+    private class Worker {
+        private final SplittableRandom random;
+        private final long warmupEnd;
+        private final long end;
+        private final Map<String, EndpointStats> stats = new TreeMap<>();
+
+        private Worker(SplittableRandom random, long warmupEnd, long end) {
+            this.random = random;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        private Map<String, EndpointStats> call() {
+            while (System.nanoTime() < end) {
+                if (random.nextDouble() < settings.getWriteRatio()) {
+                    write();
+                } else {
+                    read();
+                }
+            }
+
+            return stats;
+        }
+
+        private void read() {
+            long userId = activeUsers.sample(random);
+            long itemId = popularItems.sample(random);
+            int from = random.nextInt(3) * 20;
+
+            switch (random.nextInt(10)) {
+                case 0:
+                    send("GET /users/{id}", get("/users/" + userId, userId));
+                    break;
+                case 1:
+                case 2:
+                    send("GET /items/{id}", get("/items/" + itemId, userId));
+                    break;
+                case 3:
+                    send("GET /items", get("/items?from=" + from + "&size=20", userId));
+                    break;
+                case 4:
+                case 5:
+                    String text = SkewedDataGenerator.ITEM_NAMES[random.nextInt(SkewedDataGenerator.ITEM_NAMES.length)];
+                    send("GET /items/search", get("/items/search?text=" + encode(text) + "&from=" + from + "&size=20", userId));
+                    break;
+                case 6:
+                    send("GET /bookings", get("/bookings?state=" + state() + "&from=" + from + "&size=20", userId));
+                    break;
+                case 7:
+                    send("GET /bookings/owner", get("/bookings/owner?state=" + state() + "&from=" + from + "&size=20", userId));
+                    break;
+                case 8:
+                    send("GET /requests/all", get("/requests/all?from=" + from + "&size=20", userId));
+                    break;
+                default:
+                    send("GET /requests", get("/requests", userId));
+                    break;
+            }
+        }
+
+        private void write() {
+            long userId = activeUsers.sample(random);
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    send("POST /requests", post("/requests", userId, "{\"description\":\"Нужна дрель на выходные\"}"));
+                    break;
+                case 1:
+                    send("POST /items", post("/items", userId,
+                            "{\"name\":\"Дрель\",\"description\":\"Дрель для нагрузочного теста\",\"available\":true}"));
+                    break;
+                default:
+                    createAndDecideBooking(userId);
+                    break;
+            }
+        }
+
+        private void createAndDecideBooking(long userId) {
+            LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(365)).withNano(0);
+            String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                    popularItems.sample(random), start, start.plusHours(1 + random.nextInt(72)));
+
+            HttpResponse<String> response = send("POST /bookings", post("/bookings", userId, body));
+            if (response == null || response.statusCode() != 200) {
+                return;
+            }
+
+            try {
+                JsonNode booking = objectMapper.readTree(response.body());
+                long bookingId = booking.path("id").asLong();
+                long ownerId = booking.path("item").path("owner").path("id").asLong();
+
+                send("PATCH /bookings/{id}", HttpRequest.newBuilder(uri("/bookings/" + bookingId + "?approved=" + random.nextBoolean()))
+                        .header(USER_HEADER, String.valueOf(ownerId))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build());
+            } catch (Exception e) {
+                stats("PATCH /bookings/{id}").recordFailure();
+            }
+        }
+
+        private HttpResponse<String> send(String endpoint, HttpRequest request) {
+            long started = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (started >= warmupEnd) {
+                    stats(endpoint).record(System.nanoTime() - started, response.statusCode());
+                }
+                return response;
+            } catch (Exception e) {
+                if (started >= warmupEnd) {
+                    stats(endpoint).recordFailure();
+                }
+                return null;
+            }
+        }
+
+        private EndpointStats stats(String endpoint) {
+            return stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+        }
+
+        private String state() {
+            return BOOKING_STATES[random.nextInt(BOOKING_STATES.length)];
+        }
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, long userId, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(settings.getBaseUrl() + path);
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+}
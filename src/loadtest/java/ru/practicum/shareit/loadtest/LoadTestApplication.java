@@ -0,0 +1,26 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+
+/**
+ * Starts the application and fills its database with the skewed dataset.
+ * The arguments are passed to both Spring and {@link LoadTestSettings}, so the database can be switched
+ * with {@code --spring.datasource.url=...}.
+ */
+public class LoadTestApplication {
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = SpringApplication.run(ShareItApp.class, args);
+
+        new SkewedDataGenerator(context.getBean(JdbcTemplate.class), new LoadTestSettings(args)).generate();
+
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(ItemBookingSummaryService.class).rebuild();
+    }
+}
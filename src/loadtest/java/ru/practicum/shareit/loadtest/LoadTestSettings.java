@@ -0,0 +1,47 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options of the data generator and the load driver, passed as {@code --name=value} arguments.
+ * The generator and the driver must be started with the same dataset sizes.
+ */
+@Getter
+public class LoadTestSettings {
+    private final long seed;
+    private final int users;
+    private final int items;
+    private final int bookings;
+    private final int requests;
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final double writeRatio;
+
+    public LoadTestSettings(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        items = Integer.parseInt(options.getOrDefault("items", "50000"));
+        bookings = Integer.parseInt(options.getOrDefault("bookings", "500000"));
+        requests = Integer.parseInt(options.getOrDefault("requests", "20000"));
+
+        baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "30")));
+        duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "120")));
+        writeRatio = Double.parseDouble(options.getOrDefault("write-ratio", "0.1"));
+    }
+}
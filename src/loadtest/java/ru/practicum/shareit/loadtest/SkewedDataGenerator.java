@@ -0,0 +1,194 @@
+package ru.practicum.shareit.loadtest;
+
+import db.migration.V4__CreateIdSequences;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-inserts a reproducible dataset with skewed distributions:
+ * item ownership and item popularity follow Zipf laws, so a few owners hold most items and a few items collect
+ * most bookings, and bookers are Zipf-distributed as well, which gives some users long booking histories.
+ * The bookings of every item are spread over a four-year window without overlapping each other.
+ */
+@Slf4j
+public class SkewedDataGenerator {
+    public static final String[] ITEM_NAMES = {
+            "Дрель", "Отвертка", "Перфоратор", "Лестница", "Палатка", "Велосипед", "Телескоп", "Проектор",
+            "Гитара", "Самокат", "Пила", "Шуруповерт", "Фотоаппарат", "Байдарка", "Генератор", "Мангал"
+    };
+
+    private static final String[] ITEM_ADJECTIVES = {
+            "Простая", "Аккумуляторная", "Профессиональная", "Складная", "Новая", "Компактная", "Мощная"
+    };
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final double COMMENT_PROBABILITY = 0.1;
+    private static final double REQUEST_ITEM_PROBABILITY = 0.1;
+    private static final List<String> ID_SEQUENCE_TABLES = List.of("users", "items");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestSettings settings;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    private long[] ownerByItem;
+
+    public SkewedDataGenerator(JdbcTemplate jdbcTemplate, LoadTestSettings settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.getSeed());
+    }
+
+    public void generate() {
+        long started = System.nanoTime();
+
+        insertUsers();
+        insertRequests();
+        insertItems();
+        insertBookingsAndComments();
+
+        for (String table : List.of("users", "requests", "items", "bookings", "comments")) {
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            jdbcTemplate.execute(String.format("alter table %s alter column id restart with %d", table, maxId + 1));
+            if (ID_SEQUENCE_TABLES.contains(table)) {
+                jdbcTemplate.execute(String.format(
+                        "alter sequence %s_seq restart with %d", table, maxId + V4__CreateIdSequences.ALLOCATION_SIZE));
+            }
+        }
+
+        log.info("Тестовые данные сгенерированы за {} с", Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private void insertUsers() {
+        Batch users = new Batch("insert into users (id, name, email) values (?, ?, ?)");
+        for (long id = 1; id <= settings.getUsers(); id++) {
+            users.add(id, "Пользователь " + id, "user" + id + "@shareit.ru");
+        }
+        users.flush();
+    }
+
+    private void insertRequests() {
+        Batch requests = new Batch("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)");
+        for (long id = 1; id <= settings.getRequests(); id++) {
+            requests.add(
+                    id,
+                    "Нужна " + ITEM_NAMES[random.nextInt(ITEM_NAMES.length)].toLowerCase(),
+                    1 + random.nextInt(settings.getUsers()),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)))
+            );
+        }
+        requests.flush();
+    }
+
+    private void insertItems() {
+        ZipfDistribution owners = new ZipfDistribution(settings.getUsers(), 1.1, random);
+        ownerByItem = new long[settings.getItems() + 1];
+
+        Batch items = new Batch("insert into items (id, name, description, available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)");
+        for (int id = 1; id <= settings.getItems(); id++) {
+            ownerByItem[id] = owners.sample(random);
+
+            String name = ITEM_NAMES[random.nextInt(ITEM_NAMES.length)];
+            Long requestId = settings.getRequests() > 0 && random.nextDouble() < REQUEST_ITEM_PROBABILITY
+                    ? (long) (1 + random.nextInt(settings.getRequests()))
+                    : null;
+
+            items.add(
+                    id,
+                    name + " " + id,
+                    ITEM_ADJECTIVES[random.nextInt(ITEM_ADJECTIVES.length)] + " " + name.toLowerCase() + " для дома и дачи",
+                    random.nextInt(20) != 0,
+                    ownerByItem[id],
+                    requestId
+            );
+        }
+        items.flush();
+    }
+
+    private void insertBookingsAndComments() {
+        ZipfDistribution popularItems = new ZipfDistribution(settings.getItems(), 1.0, random);
+        ZipfDistribution bookers = new ZipfDistribution(settings.getUsers(), 0.9, random);
+
+        int[] bookingsByItem = new int[settings.getItems() + 1];
+        for (int i = 0; i < settings.getBookings(); i++) {
+            bookingsByItem[(int) popularItems.sample(random)]++;
+        }
+
+        LocalDateTime windowStart = now.minusYears(3);
+        long windowMinutes = Duration.between(windowStart, now.plusYears(1)).toMinutes();
+
+        Batch bookings = new Batch("insert into bookings (id, start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)");
+        Batch comments = new Batch("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)");
+        long bookingId = 0;
+        long commentId = 0;
+
+        for (int itemId = 1; itemId <= settings.getItems(); itemId++) {
+            int amount = bookingsByItem[itemId];
+            if (amount == 0) {
+                continue;
+            }
+
+            long slotMinutes = Math.max(2, windowMinutes / amount);
+            for (int k = 0; k < amount; k++) {
+                LocalDateTime start = windowStart.plusMinutes(k * slotMinutes + random.nextLong(slotMinutes / 2));
+                LocalDateTime end = start.plusMinutes(1 + random.nextLong(slotMinutes / 2));
+
+                long bookerId = bookers.sample(random);
+                if (bookerId == ownerByItem[itemId]) {
+                    bookerId = 1 + bookerId % settings.getUsers();
+                }
+
+                String status = status(start, end);
+                bookings.add(++bookingId, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId, status);
+
+                if ("APPROVED".equals(status) && end.isBefore(now) && random.nextDouble() < COMMENT_PROBABILITY) {
+                    comments.add(++commentId, "Отличная вещь, спасибо!", itemId, bookerId, Timestamp.valueOf(end.plusHours(1)));
+                }
+            }
+        }
+
+        bookings.flush();
+        comments.flush();
+    }
+
+    private String status(LocalDateTime start, LocalDateTime end) {
+        int value = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return value < 80 ? "APPROVED" : value < 92 ? "REJECTED" : "CANCELED";
+        } else if (start.isAfter(now)) {
+            return value < 50 ? "WAITING" : "APPROVED";
+        } else {
+            return "APPROVED";
+        }
+    }
+
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        private Batch(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ids {@code 1..n} with Zipf-distributed popularity. Ranks are shuffled onto ids,
+ * so the most popular id is not always the first one and several distributions over the same ids are independent.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+    private final long[] idByRank;
+
+    public ZipfDistribution(int n, double exponent, SplittableRandom random) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+
+        idByRank = new long[n];
+        for (int rank = 0; rank < n; rank++) {
+            idByRank[rank] = rank + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long id = idByRank[i];
+            idByRank[i] = idByRank[j];
+            idByRank[j] = id;
+        }
+    }
+
+    public long sample(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (rank < 0) {
+            rank = Math.min(-rank - 1, cumulative.length - 1);
+        }
+
+        return idByRank[rank];
+    }
+}
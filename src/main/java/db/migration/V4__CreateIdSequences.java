@@ -0,0 +1,37 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Creates the sequences that users and items take their ids from.
+ * Hibernate's pooled optimizer treats every sequence value as the upper bound of a block of ids,
+ * so each sequence starts one block above the largest id already in its table.
+ */
+public class V4__CreateIdSequences extends BaseJavaMigration {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("users", "items");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long maxId;
+                try (ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                    resultSet.next();
+                    maxId = resultSet.getLong(1);
+                }
+
+                statement.execute(String.format(
+                        "create sequence if not exists %s_seq start with %d increment by %d",
+                        table, maxId + ALLOCATION_SIZE, ALLOCATION_SIZE
+                ));
+            }
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.utils.JsonArrayWriter;
+import ru.practicum.shareit.utils.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,7 +26,11 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String EXPORT_WATERMARK_HEADER = "X-Export-Watermark";
+
     private final BookingService bookingService;
+    private final BookingExportWindow bookingExportWindow;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto create(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody BookingInputDto bookingDto) {
@@ -32,19 +47,70 @@ public class BookingController {
         return bookingService.getBookingById(userId, bookingId);
     }
 
-    @GetMapping
+    @GetMapping(params = {"size", "!limit"})
     public List<BookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                        @RequestParam(required = false) @Min(1) Integer size) {
+                                        @RequestParam @Min(1) Integer size) {
         return bookingService.getBookings(userId, state, from, size);
     }
 
-    @GetMapping("/owner")
+    @GetMapping(path = "/owner", params = {"size", "!limit"})
     public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @RequestParam(defaultValue = "ALL") String state,
                                              @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                             @RequestParam(required = false) @Min(1) Integer size) {
+                                             @RequestParam @Min(1) Integer size) {
         return bookingService.getOwnerBookings(userId, state, from, size);
     }
+
+    @GetMapping(params = {"!size", "!limit"})
+    public void streamBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @RequestParam(defaultValue = "ALL") String state,
+                               @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                               HttpServletResponse response) throws IOException {
+        JsonArrayWriter<BookingDto> writer = new JsonArrayWriter<>(objectMapper, response);
+        bookingService.streamBookings(userId, state, from, writer);
+        writer.finish();
+    }
+
+    @GetMapping(path = "/owner", params = {"!size", "!limit"})
+    public void streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    @RequestParam(defaultValue = "ALL") String state,
+                                    @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                    HttpServletResponse response) throws IOException {
+        JsonArrayWriter<BookingDto> writer = new JsonArrayWriter<>(objectMapper, response);
+        bookingService.streamOwnerBookings(userId, state, from, writer);
+        writer.finish();
+    }
+
+    @GetMapping("/export")
+    public void exportBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @RequestParam(defaultValue = "OWNER") String role,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                               HttpServletResponse response) throws IOException {
+        // The header has to be set before the first line commits the response
+        LocalDateTime until = bookingExportWindow.until();
+        response.setHeader(EXPORT_WATERMARK_HEADER, until.toString());
+
+        NdjsonWriter<BookingExportDto> writer = new NdjsonWriter<>(objectMapper, response, NdjsonWriter.acceptsGzip(acceptEncoding));
+        bookingService.exportBookings(userId, role, since, until, writer);
+        writer.finish();
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<BookingDto>> getBookingsAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam @Min(1) @Max(1000) Integer limit) {
+        return bookingService.getBookingsAfter(userId, state, after, limit).toResponseEntity();
+    }
+
+    @GetMapping(path = "/owner", params = "limit")
+    public ResponseEntity<List<BookingDto>> getOwnerBookingsAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(defaultValue = "ALL") String state,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam @Min(1) @Max(1000) Integer limit) {
+        return bookingService.getOwnerBookingsAfter(userId, state, after, limit).toResponseEntity();
+    }
 }
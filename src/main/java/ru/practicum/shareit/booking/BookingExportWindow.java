@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Upper bound of an incremental booking export. {@code updated} is stamped by the application when a change
+ * is flushed, not when it commits, so a row stamped before an export may only become visible after it.
+ * Exports therefore stop a settle window short of the current time; the window must exceed the longest
+ * booking transaction. The bound is handed back to the client as the {@code since} of its next export.
+ */
+@Component
+public class BookingExportWindow {
+    private final Duration settleWindow;
+
+    public BookingExportWindow(@Value("${shareit.export.settle-window:30s}") Duration settleWindow) {
+        this.settleWindow = settleWindow;
+    }
+
+    public LocalDateTime until() {
+        return LocalDateTime.now().minus(settleWindow);
+    }
+}
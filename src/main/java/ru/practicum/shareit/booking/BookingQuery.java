@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.utils.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter for booking listings executed by {@link BookingRepositoryCustom#findAll(BookingQuery)}.
+ * The state is evaluated against the single instant captured when the query is created.
+ * Results are always ordered by start and id descending.
+ */
+@Getter
+public class BookingQuery {
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    private final Role role;
+    private final Long userId;
+    private final BookingState state;
+    private final LocalDateTime now;
+
+    private Long itemId;
+    private LocalDateTime rangeStart;
+    private LocalDateTime rangeEnd;
+    private Set<BookingStatus> statuses;
+    private Cursor after;
+    private int offset;
+    private Integer limit;
+
+    private BookingQuery(Role role, Long userId, BookingState state, LocalDateTime now) {
+        this.role = role;
+        this.userId = userId;
+        this.state = state;
+        this.now = now;
+    }
+
+    public static BookingQuery byBooker(Long bookerId, BookingState state, LocalDateTime now) {
+        return new BookingQuery(Role.BOOKER, bookerId, state, now);
+    }
+
+    public static BookingQuery byOwner(Long ownerId, BookingState state, LocalDateTime now) {
+        return new BookingQuery(Role.OWNER, ownerId, state, now);
+    }
+
+    public BookingQuery forItem(Long itemId) {
+        this.itemId = itemId;
+        return this;
+    }
+
+    public BookingQuery overlapping(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        return this;
+    }
+
+    public BookingQuery withStatuses(Collection<BookingStatus> statuses) {
+        this.statuses = statuses.isEmpty() ? EnumSet.noneOf(BookingStatus.class) : EnumSet.copyOf(statuses);
+        return this;
+    }
+
+    public BookingQuery after(Cursor after) {
+        this.after = after;
+        return this;
+    }
+
+    public BookingQuery page(int offset, Integer limit) {
+        this.offset = offset;
+        this.limit = limit;
+        return this;
+    }
+}
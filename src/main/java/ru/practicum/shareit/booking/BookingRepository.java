@@ -1,37 +1,64 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.utils.EntityBatchReader;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
-    Page<Booking> findByBookerId(Long bookerId, Pageable page);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end, Pageable page);
+public interface BookingRepository extends PagingAndSortingRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
 
-    Page<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable page);
-
-    Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable page);
-
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable page);
-
-    Page<Booking> findByItem_Owner_Id(Long ownerId, Pageable page);
-
-    Page<Booking> findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start, LocalDateTime end, Pageable page);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Booking findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(Long itemId, Long userId, LocalDateTime end, BookingStatus status);
 
-    Page<Booking> findByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime end, Pageable page);
+    @Query("select b from bookings b " +
+            "where b.item.id in ?1 and b.status = ?3 and b.start = (" +
+            "select max(l.start) from bookings l where l.item.id = b.item.id and l.status = ?3 and l.start < ?2)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, BookingStatus status);
 
-    Page<Booking> findByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime start, Pageable page);
+    @Query("select b from bookings b " +
+            "where b.item.id in ?1 and b.status = ?3 and b.start = (" +
+            "select min(n.start) from bookings n where n.item.id = b.item.id and n.status = ?3 and n.start > ?2)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, BookingStatus status);
 
-    Page<Booking> findByItem_Owner_IdAndStatus(Long ownerId, BookingStatus status, Pageable page);
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.item.id, b.start, b.end, b.status) " +
+            "from bookings b where b.status in ?1 and b.end > ?2 and b.id > ?3 order by b.id")
+    List<BookingInterval> findIntervalsAfter(Collection<BookingStatus> statuses, LocalDateTime endAfter, Long bookingId, Pageable page);
 
-    Booking findFirstByItem_IdAndStartBeforeAndStatusOrderByStartDesc(Long itemId, LocalDateTime end, BookingStatus status);
+    @Modifying(clearAutomatically = true)
+    @Query("update bookings b set b.status = ?2, b.updated = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int updateStatusIfWaiting(Long bookingId, BookingStatus status, LocalDateTime updated);
 
-    Booking findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime end, BookingStatus status);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EntityBatchReader.FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportDto(" +
+            "b.id, i.id, i.name, i.owner.id, b.booker.id, b.start, b.end, b.status, b.updated) " +
+            "from bookings b join b.item i where b.booker.id = ?1 and b.updated >= ?2 and b.updated < ?3 " +
+            "order by b.updated, b.id")
+    Stream<BookingExportDto> exportByBookerId(Long bookerId, LocalDateTime since, LocalDateTime until);
 
-    Booking findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(Long itemId, Long userId, LocalDateTime end, BookingStatus status);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EntityBatchReader.FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportDto(" +
+            "b.id, i.id, i.name, i.owner.id, b.booker.id, b.start, b.end, b.status, b.updated) " +
+            "from bookings b join b.item i where i.owner.id = ?1 and b.updated >= ?2 and b.updated < ?3 " +
+            "order by b.updated, b.id")
+    Stream<BookingExportDto> exportByOwnerId(Long ownerId, LocalDateTime since, LocalDateTime until);
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Loads full booking entities. The service reads {@link #findViews} projections instead; this stays as the
+     * baseline of BookingProjectionBenchmark and for repository tests of the query filters.
+     */
+    List<Booking> findAll(BookingQuery query);
+
+    List<BookingView> findViews(BookingQuery query);
+
+    Stream<BookingView> streamViews(BookingQuery query);
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.EntityBatchReader;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAll(BookingQuery bookingQuery) {
+        return createQuery(bookingQuery).getResultList();
+    }
+
+    @Override
+    public List<BookingView> findViews(BookingQuery bookingQuery) {
+        return createViewQuery(bookingQuery).getResultList();
+    }
+
+    @Override
+    public Stream<BookingView> streamViews(BookingQuery bookingQuery) {
+        return createViewQuery(bookingQuery)
+                .setHint(HINT_FETCH_SIZE, EntityBatchReader.BATCH_SIZE)
+                .getResultStream();
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<Booking> createQuery(BookingQuery bookingQuery) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+
+        // The item fetch join doubles as the join used by the filters, so the statement never joins a table twice.
+        // Owner and booker are filtered by their foreign key columns, which keeps the index path predictable
+        Join<Booking, Item> item = (Join<Booking, Item>) root.<Booking, Item>fetch("item");
+        item.fetch("owner");
+        root.fetch("booker");
+
+        query.select(root);
+        return page(restrict(query, root, item, bookingQuery, cb), bookingQuery);
+    }
+
+    private TypedQuery<BookingView> createViewQuery(BookingQuery bookingQuery) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<Booking> root = query.from(Booking.class);
+
+        Join<Booking, Item> item = root.join("item");
+        Join<Item, User> owner = item.join("owner");
+        Join<Booking, User> booker = root.join("booker");
+
+        query.select(cb.construct(
+                BookingView.class,
+                root.get("id"), root.get("start"), root.get("end"), root.get("status"),
+                item.get("id"), item.get("name"), item.get("description"), item.get("available"), item.get("requestId"),
+                owner.get("id"), owner.get("name"), owner.get("email"),
+                booker.get("id"), booker.get("name"), booker.get("email")
+        ));
+        return page(restrict(query, root, item, bookingQuery, cb), bookingQuery);
+    }
+
+    private <T> CriteriaQuery<T> restrict(CriteriaQuery<T> query, Root<Booking> root, Join<Booking, Item> item,
+                                          BookingQuery bookingQuery, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (bookingQuery.getRole() == BookingQuery.Role.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), bookingQuery.getUserId()));
+        } else {
+            predicates.add(cb.equal(root.get("booker").get("id"), bookingQuery.getUserId()));
+        }
+
+        addStatePredicate(predicates, bookingQuery, root, cb);
+
+        if (bookingQuery.getItemId() != null) {
+            predicates.add(cb.equal(item.get("id"), bookingQuery.getItemId()));
+        }
+
+        if (bookingQuery.getRangeStart() != null) {
+            predicates.add(cb.greaterThan(root.get("end"), bookingQuery.getRangeStart()));
+        }
+
+        if (bookingQuery.getRangeEnd() != null) {
+            predicates.add(cb.lessThan(root.get("start"), bookingQuery.getRangeEnd()));
+        }
+
+        if (bookingQuery.getStatuses() != null) {
+            predicates.add(bookingQuery.getStatuses().isEmpty()
+                    ? cb.disjunction()
+                    : root.get("status").in(bookingQuery.getStatuses()));
+        }
+
+        Cursor after = bookingQuery.getAfter();
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("start"), after.getTimestamp()),
+                    cb.and(
+                            cb.equal(root.get("start"), after.getTimestamp()),
+                            cb.lessThan(root.get("id"), after.getId())
+                    )
+            ));
+        }
+
+        return query
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("start")), cb.desc(root.get("id")));
+    }
+
+    private <T> TypedQuery<T> page(CriteriaQuery<T> query, BookingQuery bookingQuery) {
+        TypedQuery<T> typedQuery = entityManager.createQuery(query)
+                .setFirstResult(bookingQuery.getOffset());
+        if (bookingQuery.getLimit() != null) {
+            typedQuery.setMaxResults(bookingQuery.getLimit());
+        }
+
+        return typedQuery;
+    }
+
+    private void addStatePredicate(List<Predicate> predicates, BookingQuery bookingQuery, Root<Booking> root, CriteriaBuilder cb) {
+        LocalDateTime now = bookingQuery.getNow();
+
+        switch (bookingQuery.getState()) {
+            case CURRENT:
+                predicates.add(cb.lessThan(root.get("start"), now));
+                predicates.add(cb.greaterThan(root.get("end"), now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(root.get("end"), now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(root.get("start"), now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(root.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(root.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+    }
+}
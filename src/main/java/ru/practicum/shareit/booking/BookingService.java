@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(Long userId, BookingInputDto bookingDto);
@@ -15,4 +19,18 @@ public interface BookingService {
     List<BookingDto> getBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingDto> getOwnerBookings(Long userId, String state, Integer from, Integer size);
+
+    void streamBookings(Long userId, String state, Integer from, Consumer<BookingDto> consumer);
+
+    void streamOwnerBookings(Long userId, String state, Integer from, Consumer<BookingDto> consumer);
+
+    /**
+     * Streams bookings changed in [since, until). Consecutive exports chained by their bounds never overlap,
+     * and until should lag the current time by more than a transaction, see {@link BookingExportWindow}.
+     */
+    void exportBookings(Long userId, String role, LocalDateTime since, LocalDateTime until, Consumer<BookingExportDto> consumer);
+
+    CursorPage<BookingDto> getBookingsAfter(Long userId, String state, String after, Integer limit);
+
+    CursorPage<BookingDto> getOwnerBookingsAfter(Long userId, String state, String after, Integer limit);
 }
@@ -2,40 +2,52 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.exceptions.BookingNotFound;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.error.baseExceptions.ValidationError;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnershipDto;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.service.MapperService;
 import ru.practicum.shareit.service.ValidationService;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.utils.Pagination;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final LocalDateTime EXPORT_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final ValidationService validationService;
     private final MapperService mapperService;
     private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLocks itemLocks;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     @Override
+    @Transactional
     public BookingDto create(Long userId, BookingInputDto bookingDto) {
         UserDto user = validateUser(userId);
-        ItemDto item = validationService.getItemById(bookingDto.getItemId(), userId);
+        ItemOwnershipDto item = validationService.getItemOwnership(bookingDto.getItemId());
 
         if (!item.getAvailable()) {
             throw new ValidationError("Данная вещь недоступна для бронирования");
@@ -45,23 +57,37 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationError("Дата окончания бранирования не может быть раньше, чем дата начала");
         }
 
-        Booking booking = mapperService.toBooking(bookingDto, item, user);
-        if (userId.equals(booking.getItem().getOwner().getId())) {
+        if (userId.equals(item.getOwnerId())) {
             throw new BookingNotFound("Владелец вещи не может забронировать собственную вещь");
         }
 
-        return mapperService.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = itemLocks.withLock(item.getId(), () -> {
+            if (!bookingIntervalIndex.isFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+                throw new ValidationError("Вещь уже забронирована на указанный период");
+            }
+
+            Booking booking = mapperService.toBooking(bookingDto, validationService.getItemWithOwner(item.getId()), user);
+
+            Booking saved = bookingRepository.save(booking);
+            bookingIntervalIndex.index(saved);
+            return saved;
+        });
+
+        return mapperService.toBookingDto(savedBooking);
     }
 
     @Override
+    @Transactional
     public BookingDto update(Long userId, Long bookingId, Boolean approved) {
         validateUser(userId);
 
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFound(String.format("Бронирование с id = %d не найдено", bookingId)));
 
+        boolean wasApproved = false;
         if (booking.getBooker().getId().equals(userId)) {
             if (!approved) {
+                wasApproved = booking.getStatus() == BookingStatus.APPROVED;
                 booking.setStatus(BookingStatus.CANCELED);
             } else {
                 throw new BookingNotFound("Подтвердить бронирование может только владелец вещи");
@@ -73,16 +99,20 @@ public class BookingServiceImpl implements BookingService {
                 throw new ValidationError("Решение по бронированию уже принято");
             }
 
-            if (approved) {
-                booking.setStatus(BookingStatus.APPROVED);
-            } else {
-                booking.setStatus(BookingStatus.REJECTED);
-            }
+            return decide(booking, approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         } else {
             throw new BookingNotFound("Подтвердить бронирование может только владелец вещи");
         }
 
-        return mapperService.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.index(savedBooking);
+        BookingDto bookingDto = mapperService.toBookingDto(savedBooking);
+
+        if (wasApproved) {
+            itemBookingSummaryService.refresh(List.of(savedBooking.getItem().getId()));
+        }
+
+        return bookingDto;
     }
 
     @Override
@@ -103,120 +133,118 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> getBookings(Long userId, String state, Integer from, Integer size) {
         validateUser(userId);
 
-        List<BookingDto> listBookingDto = new ArrayList<>();
-
-        Pageable pageable;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Page<Booking> page;
-        Pagination pager = new Pagination(from, size);
+        return findBookings(BookingQuery.byBooker(userId, BookingState.from(state), LocalDateTime.now())
+                .page(from, size));
+    }
 
-        if (size == null) {
-            pageable = PageRequest.of(pager.getPageStart(), pager.getPageSize(), sort);
-            page = getBookingsPage(state, userId, pageable);
+    @Override
+    public List<BookingDto> getOwnerBookings(Long userId, String state, Integer from, Integer size) {
+        validateUser(userId);
 
-            while (page.hasContent()) {
-                listBookingDto.addAll(page.stream().map(mapperService::toBookingDto).collect(Collectors.toList()));
-                pageable = pageable.next();
-                page = getBookingsPage(state, userId, pageable);
-            }
-        } else {
-            for (int i = pager.getPageStart(); i < pager.getPagesAmount(); i++) {
-                pageable = PageRequest.of(i, pager.getPageSize(), sort);
-                page = getBookingsPage(state, userId, pageable);
-                listBookingDto.addAll(page.stream().map(mapperService::toBookingDto).collect(Collectors.toList()));
-            }
+        return findBookings(BookingQuery.byOwner(userId, BookingState.from(state), LocalDateTime.now())
+                .page(from, size));
+    }
 
-            listBookingDto = listBookingDto.stream().limit(size).collect(Collectors.toList());
-        }
+    @Override
+    public void streamBookings(Long userId, String state, Integer from, Consumer<BookingDto> consumer) {
+        validateUser(userId);
 
-        return listBookingDto;
+        streamBookings(BookingQuery.byBooker(userId, BookingState.from(state), LocalDateTime.now())
+                .page(from, null), consumer);
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long userId, String state, Integer from, Integer size) {
+    public void streamOwnerBookings(Long userId, String state, Integer from, Consumer<BookingDto> consumer) {
         validateUser(userId);
 
-        List<BookingDto> listBookingDto = new ArrayList<>();
+        streamBookings(BookingQuery.byOwner(userId, BookingState.from(state), LocalDateTime.now())
+                .page(from, null), consumer);
+    }
 
-        Pageable pageable;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Page<Booking> page;
-        Pagination pager = new Pagination(from, size);
+    @Override
+    public void exportBookings(Long userId, String role, LocalDateTime since, LocalDateTime until,
+                               Consumer<BookingExportDto> consumer) {
+        validateUser(userId);
 
-        if (size == null) {
-            pageable = PageRequest.of(pager.getPageStart(), pager.getPageSize(), sort);
-            page = getOwnerBookingsPage(state, userId, pageable);
+        BookingQuery.Role exportRole;
+        try {
+            exportRole = BookingQuery.Role.valueOf(role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationError("Unknown role: " + role);
+        }
 
-            while (page.hasContent()) {
-                listBookingDto.addAll(page.stream().map(mapperService::toBookingDto).collect(Collectors.toList()));
-                pageable = pageable.next();
-                page = getOwnerBookingsPage(state, userId, pageable);
-            }
-        } else {
-            for (int i = pager.getPageStart(); i < pager.getPagesAmount(); i++) {
-                pageable = PageRequest.of(i, pager.getPageSize(), sort);
-                page = getOwnerBookingsPage(state, userId, pageable);
-                listBookingDto.addAll(page.stream().map(mapperService::toBookingDto).collect(Collectors.toList()));
-            }
+        LocalDateTime updatedSince = since == null ? EXPORT_EPOCH : since;
+        log.info("Выгрузка бронирований пользователя с id = {} ({}), изменённых с {} по {}", userId, exportRole, updatedSince, until);
 
-            listBookingDto = listBookingDto.stream().limit(size).collect(Collectors.toList());
+        try (Stream<BookingExportDto> rows = exportRole == BookingQuery.Role.OWNER
+                ? bookingRepository.exportByOwnerId(userId, updatedSince, until)
+                : bookingRepository.exportByBookerId(userId, updatedSince, until)) {
+            rows.forEach(consumer);
         }
+    }
+
+    @Override
+    public CursorPage<BookingDto> getBookingsAfter(Long userId, String state, String after, Integer limit) {
+        validateUser(userId);
+
+        return findBookingsAfter(BookingQuery.byBooker(userId, BookingState.from(state), LocalDateTime.now()), after, limit);
+    }
 
-        return listBookingDto;
+    @Override
+    public CursorPage<BookingDto> getOwnerBookingsAfter(Long userId, String state, String after, Integer limit) {
+        validateUser(userId);
+
+        return findBookingsAfter(BookingQuery.byOwner(userId, BookingState.from(state), LocalDateTime.now()), after, limit);
     }
 
-    private Page<Booking> getBookingsPage(String state, Long userId, Pageable pageable) {
-        Page<Booking> page;
-
-        switch (state) {
-            case "ALL":
-                page = bookingRepository.findByBookerId(userId, pageable);
-                break;
-            case "CURRENT":
-                page = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case "PAST":
-                page = bookingRepository.findByBookerIdAndEndIsBefore(userId, LocalDateTime.now(), pageable);
-                break;
-            case "FUTURE":
-                page = bookingRepository.findByBookerIdAndStartIsAfter(userId, LocalDateTime.now(), pageable);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                page = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.valueOf(state), pageable);
-                break;
-            default:
-                throw new ValidationError("Unknown state: " + state);
+    private List<BookingDto> findBookings(BookingQuery query) {
+        return bookingRepository.findViews(query).stream()
+                .map(mapperService::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private void streamBookings(BookingQuery query, Consumer<BookingDto> consumer) {
+        // Projections never enter the persistence context, so the stream can be consumed without batching
+        try (Stream<BookingView> views = bookingRepository.streamViews(query)) {
+            views.map(mapperService::toBookingDto).forEach(consumer);
         }
+    }
 
-        return page;
+    private CursorPage<BookingDto> findBookingsAfter(BookingQuery query, String after, Integer limit) {
+        List<BookingView> bookings = bookingRepository.findViews(query
+                .after(Cursor.decodeWithTimestamp(after))
+                .page(0, limit + 1));
+
+        return CursorPage.of(
+                bookings,
+                limit,
+                page -> page.stream().map(mapperService::toBookingDto).collect(Collectors.toList()),
+                booking -> Cursor.of(booking.getStart(), booking.getId())
+        );
     }
 
-    private Page<Booking> getOwnerBookingsPage(String state, Long userId, Pageable pageable) {
-        Page<Booking> page;
-
-        switch (state) {
-            case "ALL":
-                page = bookingRepository.findByItem_Owner_Id(userId, pageable);
-                break;
-            case "CURRENT":
-                page = bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case "PAST":
-                page = bookingRepository.findByItem_Owner_IdAndEndIsBefore(userId, LocalDateTime.now(), pageable);
-                break;
-            case "FUTURE":
-                page = bookingRepository.findByItem_Owner_IdAndStartIsAfter(userId, LocalDateTime.now(), pageable);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                page = bookingRepository.findByItem_Owner_IdAndStatus(userId, BookingStatus.valueOf(state), pageable);
-                break;
-            default:
-                throw new ValidationError("Unknown state: " + state);
+    private BookingDto decide(Booking booking, BookingStatus status) {
+        Long itemId = booking.getItem().getId();
+
+        Booking savedBooking = itemLocks.withLock(itemId, () -> {
+            if (bookingRepository.updateStatusIfWaiting(booking.getId(), status, LocalDateTime.now()) == 0) {
+                throw new ValidationError("Решение по бронированию уже принято");
+            }
+
+            Booking updated = bookingRepository.findById(booking.getId())
+                    .orElseThrow(() -> new BookingNotFound(String.format("Бронирование с id = %d не найдено", booking.getId())));
+            bookingIntervalIndex.index(updated);
+            return updated;
+        });
+
+        log.info("Бронирование с id = {} переведено в статус {}", savedBooking.getId(), status);
+        BookingDto bookingDto = mapperService.toBookingDto(savedBooking);
+
+        if (status == BookingStatus.APPROVED) {
+            itemBookingSummaryService.refresh(List.of(itemId));
         }
 
-        return page;
+        return bookingDto;
     }
 
     private UserDto validateUser(Long userId) {
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingInterval {
+    private final Long bookingId;
+    private final Long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return start.isBefore(to) && end.isAfter(from);
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-item index of the booking intervals that keep an item busy (waiting for approval or approved).
+ * It is rebuilt from the database on startup and kept up to date by BookingServiceImpl.
+ * Only intervals that have not ended yet are kept: they are the only ones a new booking can still
+ * collide with, so the index follows the number of upcoming bookings rather than the bookings table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+    private final Map<Long, BookingInterval> intervals = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        trees.clear();
+        intervals.clear();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingInterval> batch = bookingRepository.findIntervalsAfter(
+                BLOCKING_STATUSES, now, 0L, PageRequest.of(0, REBUILD_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(this::put);
+            batch = bookingRepository.findIntervalsAfter(
+                    BLOCKING_STATUSES, now, batch.get(batch.size() - 1).getBookingId(), PageRequest.of(0, REBUILD_BATCH_SIZE));
+        }
+
+        log.info("Индекс бронирований построен, проиндексировано бронирований: {}", intervals.size());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-index.prune-delay:3600000}",
+            fixedDelayString = "${shareit.booking-index.prune-delay:3600000}")
+    public void prune() {
+        prune(LocalDateTime.now());
+    }
+
+    public void prune(LocalDateTime now) {
+        int pruned = 0;
+        for (BookingInterval interval : intervals.values()) {
+            if (!interval.getEnd().isAfter(now) && intervals.remove(interval.getBookingId(), interval)) {
+                removeFromTree(interval);
+                pruned++;
+            }
+        }
+
+        if (pruned > 0) {
+            log.info("Из индекса бронирований удалены завершённые бронирования: {}", pruned);
+        }
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return true;
+        }
+
+        synchronized (tree) {
+            return !tree.anyOverlap(from, to);
+        }
+    }
+
+    public void index(Booking booking) {
+        BookingInterval interval = BLOCKING_STATUSES.contains(booking.getStatus()) && booking.getEnd().isAfter(LocalDateTime.now())
+                ? new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getStatus())
+                : null;
+
+        BookingInterval previous = interval == null ? remove(booking.getId()) : put(interval);
+        restoreOnRollback(booking.getId(), previous);
+    }
+
+    private BookingInterval put(BookingInterval interval) {
+        BookingInterval previous = remove(interval.getBookingId());
+
+        trees.compute(interval.getItemId(), (itemId, tree) -> {
+            IntervalTree itemTree = tree == null ? new IntervalTree() : tree;
+            synchronized (itemTree) {
+                itemTree.insert(interval);
+            }
+            return itemTree;
+        });
+
+        intervals.put(interval.getBookingId(), interval);
+        return previous;
+    }
+
+    private BookingInterval remove(Long bookingId) {
+        BookingInterval previous = intervals.remove(bookingId);
+        if (previous != null) {
+            removeFromTree(previous);
+        }
+
+        return previous;
+    }
+
+    private void removeFromTree(BookingInterval interval) {
+        // Trees of items without upcoming bookings are dropped; compute keeps this atomic with concurrent inserts
+        trees.computeIfPresent(interval.getItemId(), (itemId, tree) -> {
+            synchronized (tree) {
+                tree.remove(interval);
+                return tree.isEmpty() ? null : tree;
+            }
+        });
+    }
+
+    private void restoreOnRollback(Long bookingId, BookingInterval previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    remove(bookingId);
+                    if (previous != null) {
+                        put(previous);
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Treap of booking intervals ordered by start, where every node also keeps the latest end of its subtree.
+ * Subtrees that end before the queried period or start after it are skipped, so an overlap lookup takes
+ * logarithmic time.
+ */
+class IntervalTree {
+    private static final Comparator<BookingInterval> ORDER = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+
+    private final Random random = new Random();
+    private Node root;
+    private int size;
+
+    void insert(BookingInterval interval) {
+        root = insert(root, new Node(interval, random.nextInt()));
+        size++;
+    }
+
+    boolean remove(BookingInterval interval) {
+        int sizeBefore = size;
+        root = remove(root, interval);
+        return size < sizeBefore;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean anyOverlap(LocalDateTime from, LocalDateTime to) {
+        return findFirst(root, from, to) != null;
+    }
+
+    private BookingInterval findFirst(Node node, LocalDateTime from, LocalDateTime to) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return null;
+        }
+
+        BookingInterval found = findFirst(node.left, from, to);
+        if (found != null) {
+            return found;
+        }
+
+        if (!node.interval.getStart().isBefore(to)) {
+            return null;
+        }
+
+        if (node.interval.overlaps(from, to)) {
+            return node.interval;
+        }
+
+        return findFirst(node.right, from, to);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (ORDER.compare(added.interval, node.interval) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+
+        int compared = ORDER.compare(interval, node.interval);
+        if (compared < 0) {
+            node.left = remove(node.left, interval);
+        } else if (compared > 0) {
+            node.right = remove(node.right, interval);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+
+        update(node);
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        LocalDateTime maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+
+        node.maxEnd = maxEnd;
+    }
+
+    private static class Node {
+        private final BookingInterval interval;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(BookingInterval interval, int priority) {
+            this.interval = interval;
+            this.priority = priority;
+            this.maxEnd = interval.getEnd();
+        }
+    }
+}
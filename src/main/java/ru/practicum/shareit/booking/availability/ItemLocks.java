@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks keyed by item id. Bookings of one item are created and decided one at a time,
+ * while bookings of unrelated items mostly fall on different stripes and proceed in parallel.
+ * The locks only cover this instance. Decisions stay consistent across instances because the status
+ * is changed by a conditional update in the database, but overlap rejection on create relies on this
+ * instance's BookingIntervalIndex and is therefore single-instance only.
+ */
+@Component
+public class ItemLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemLocks(@Value("${shareit.item-locks.stripes:64}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(itemId) * 0x9E3779B9, stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
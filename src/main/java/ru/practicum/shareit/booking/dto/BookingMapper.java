@@ -24,6 +24,27 @@ public class BookingMapper {
         );
     }
 
+    public BookingDto toBookingDto(BookingView view) {
+        return new BookingDto(
+                view.getId(),
+                view.getStart(),
+                view.getEnd(),
+                new ItemDto(
+                        view.getItemId(),
+                        view.getItemName(),
+                        view.getItemDescription(),
+                        view.getItemAvailable(),
+                        new UserDto(view.getOwnerId(), view.getOwnerName(), view.getOwnerEmail()),
+                        view.getItemRequestId(),
+                        null,
+                        null,
+                        null
+                ),
+                new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail()),
+                view.getStatus()
+        );
+    }
+
     public Booking toBooking(BookingDto bookingDto, Item item, User user) {
         return new Booking(
                 bookingDto.getId(),
@@ -31,7 +52,9 @@ public class BookingMapper {
                 bookingDto.getEnd(),
                 item,
                 user,
-                bookingDto.getStatus()
+                bookingDto.getStatus(),
+                null,
+                null
         );
     }
 
@@ -42,7 +65,9 @@ public class BookingMapper {
                 bookingInputDto.getEnd(),
                 item,
                 user,
-                BookingStatus.WAITING
+                BookingStatus.WAITING,
+                null,
+                null
         );
     }
 
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a booking listing, selected with a constructor expression so no entities are hydrated.
+ * BookingMapper turns it into the nested BookingDto.
+ */
+@Data
+@AllArgsConstructor
+public class BookingView {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+    private Long itemId;
+    private String itemName;
+    private String itemDescription;
+    private Boolean itemAvailable;
+    private Long itemRequestId;
+    private Long ownerId;
+    private String ownerName;
+    private String ownerEmail;
+    private Long bookerId;
+    private String bookerName;
+    private String bookerEmail;
+}
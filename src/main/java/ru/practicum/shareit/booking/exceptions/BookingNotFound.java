@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.exceptions;
 
-public class BookingNotFound extends RuntimeException {
+import ru.practicum.shareit.error.baseExceptions.DomainException;
+
+public class BookingNotFound extends DomainException {
     public BookingNotFound(String message) {
         super(message);
     }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.error.baseExceptions.ValidationError;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state)) {
+                return value;
+            }
+        }
+
+        throw new ValidationError("Unknown state: " + state);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheRegionStatisticsDto {
+    private String region;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Long elementsInMemory;
+}
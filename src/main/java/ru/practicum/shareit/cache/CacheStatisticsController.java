@@ -0,0 +1,48 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Hit, miss and put counters of the Hibernate second-level and query cache regions configured in ehcache.xml.
+ */
+@RestController
+@RequestMapping(path = "/cache")
+public class CacheStatisticsController {
+    private final Statistics statistics;
+
+    public CacheStatisticsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/statistics")
+    public List<CacheRegionStatisticsDto> getStatistics() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .sorted(Comparator.comparing(CacheRegionStatisticsDto::getRegion))
+                .collect(Collectors.toList());
+    }
+
+    private CacheRegionStatisticsDto toDto(CacheRegionStatistics region) {
+        return new CacheRegionStatisticsDto(
+                region.getRegionName(),
+                region.getHitCount(),
+                region.getMissCount(),
+                region.getPutCount(),
+                region.getElementCountInMemory()
+        );
+    }
+}
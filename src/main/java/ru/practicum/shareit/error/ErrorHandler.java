@@ -1,6 +1,11 @@
 package ru.practicum.shareit.error;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -12,29 +17,77 @@ import ru.practicum.shareit.request.exceptions.ItemRequestNotFound;
 import ru.practicum.shareit.user.exceptions.UserNotFound;
 import ru.practicum.shareit.error.baseExceptions.ValidationError;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps exceptions to error responses and counts them as {@code shareit.errors}, tagged by exception and status.
+ * Bodies of the fixed not-found messages, by far the most frequent errors, are allocated once;
+ * messages formatted with ids get a fresh body, which is cheaper than any shared cache of them.
+ */
 @RestControllerAdvice
 public class ErrorHandler {
+    public static final String METRIC = "shareit.errors";
+    // Batched versioned updates do not report the stale entity, so the conflict message stays neutral
+    public static final String CONFLICT_MESSAGE = "Данные были изменены другим запросом, повторите попытку";
+
+    private static final ErrorResponse CONFLICT_RESPONSE = new ErrorResponse(CONFLICT_MESSAGE);
+    private static final Map<String, ErrorResponse> FIXED_RESPONSES = Map.of(
+            UserNotFound.MESSAGE, new ErrorResponse(UserNotFound.MESSAGE),
+            ItemNotFound.MESSAGE, new ErrorResponse(ItemNotFound.MESSAGE));
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    public ErrorHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
     @ExceptionHandler({MethodArgumentNotValidException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidErrorExceptions(final MethodArgumentNotValidException e) {
+        count(e, HttpStatus.BAD_REQUEST);
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler({UserNotFound.class, ItemNotFound.class, BookingNotFound.class, ItemRequestNotFound.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(final RuntimeException e) {
-        return new ErrorResponse(e.getMessage());
+        return respond(e, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler({ValidationError.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(final RuntimeException e) {
-        return new ErrorResponse(e.getMessage());
+        return respond(e, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler({ForbiddenException.class})
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleNotAllowedException(final RuntimeException e) {
-        return new ErrorResponse(e.getMessage());
+        return respond(e, HttpStatus.FORBIDDEN);
+    }
+
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final RuntimeException e) {
+        count(e, HttpStatus.CONFLICT);
+        return CONFLICT_RESPONSE;
+    }
+
+    private ErrorResponse respond(RuntimeException e, HttpStatus status) {
+        count(e, status);
+
+        String message = e.getMessage();
+        ErrorResponse response = message == null ? null : FIXED_RESPONSES.get(message);
+        return response != null ? response : new ErrorResponse(message);
+    }
+
+    private void count(Exception e, HttpStatus status) {
+        counters.computeIfAbsent(e.getClass(), type -> Counter.builder(METRIC)
+                        .tag("exception", type.getSimpleName())
+                        .tag("status", String.valueOf(status.value()))
+                        .register(meterRegistry))
+                .increment();
     }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.error.baseExceptions;
+
+/**
+ * Base class of the expected failures that are turned into 4xx responses by {@code ErrorHandler}.
+ * They are thrown on every request of a misbehaving client, so the stack trace is never captured:
+ * the message alone identifies the failure, and filling the trace through the proxy stack dominated their cost.
+ */
+public abstract class DomainException extends RuntimeException {
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.error.baseExceptions;
 
-public class ForbiddenException extends RuntimeException {
+public class ForbiddenException extends DomainException {
     public ForbiddenException(String message) {
         super(message);
     }
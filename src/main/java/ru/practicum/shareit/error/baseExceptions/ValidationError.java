@@ -1,6 +1,6 @@
 package ru.practicum.shareit.error.baseExceptions;
 
-public class ValidationError extends RuntimeException {
+public class ValidationError extends DomainException {
     public ValidationError(String message) {
         super(message);
     }
@@ -1,11 +1,28 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Comment;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String CACHE_REGION = "comments-by-item";
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "author"})
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CACHE_REGION)})
+    @Query("select c from Comment c where c.item.id = ?1")
     List<Comment> findAllByItem_id(Long itemId, Sort sort);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CACHE_REGION)})
+    @Query("select c from Comment c join fetch c.item i join fetch i.owner join fetch c.author where c.item.id in ?1")
+    List<Comment> findAllByItem_IdIn(Collection<Long> itemIds, Sort sort);
 }
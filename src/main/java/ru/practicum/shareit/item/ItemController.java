@@ -1,14 +1,25 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.BatchResult;
+import ru.practicum.shareit.utils.JsonArrayWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,14 +28,24 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto add(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody Item item) {
         return itemService.createItem(userId, item);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResult<ItemDto>> addAll(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody List<Item> items) {
+        return itemService.createItems(userId, items);
+    }
+
     @GetMapping("/{id}")
-    public ItemDto getById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long id) {
+    public ItemDto getById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(itemService.getItemETag(id, userId))) {
+            return null;
+        }
+
         return itemService.getItemById(id, userId);
     }
 
@@ -33,23 +54,70 @@ public class ItemController {
         return itemService.updateItem(id, userId, item);
     }
 
-    @GetMapping
+    @GetMapping(params = {"size", "!limit"})
     public List<ItemDto> getAllItems(
             @RequestHeader("X-Sharer-User-Id") Long id,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(required = false) @Min(0) Integer size
+            @RequestParam @Min(0) Integer size
             ) {
         return itemService.getAllItems(id, from, size);
     }
 
-    @GetMapping("/search")
+    @GetMapping(path = "/search", params = {"size", "!limit"})
     public List<ItemDto> searchItems(
             @RequestParam(defaultValue = "") String text,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(required = false) @Min(0) Integer size) {
+            @RequestParam @Min(0) Integer size) {
         return itemService.searchItems(text, from, size);
     }
 
+    @GetMapping(params = {"!size", "!limit"})
+    public void streamAllItems(
+            @RequestHeader("X-Sharer-User-Id") Long id,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            HttpServletResponse response
+            ) throws IOException {
+        JsonArrayWriter<ItemDto> writer = new JsonArrayWriter<>(objectMapper, response);
+        itemService.streamAllItems(id, from, writer);
+        writer.finish();
+    }
+
+    @GetMapping(path = "/search", params = {"!size", "!limit"})
+    public void streamSearchItems(
+            @RequestParam(defaultValue = "") String text,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            HttpServletResponse response) throws IOException {
+        JsonArrayWriter<ItemDto> writer = new JsonArrayWriter<>(objectMapper, response);
+        itemService.streamSearchItems(text, from, writer);
+        writer.finish();
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<ItemDto>> getAllItemsAfter(
+            @RequestHeader("X-Sharer-User-Id") Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(1000) Integer limit
+            ) {
+        return itemService.getAllItemsAfter(id, after, limit).toResponseEntity();
+    }
+
+    @GetMapping(path = "/search", params = "limit")
+    public ResponseEntity<List<ItemDto>> searchItemsAfter(
+            @RequestParam(defaultValue = "") String text,
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(1000) Integer limit) {
+        return itemService.searchItemsAfter(text, after, limit).toResponseEntity();
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(id, userId, from, to);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteItem(@PathVariable Long id, @RequestHeader("X-Sharer-User-Id") Long userId) {
         itemService.deleteItem(id, userId);
@@ -3,20 +3,66 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemOwnershipDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.EntityBatchReader;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface ItemRepository extends JpaRepository<Item, Long> {
+    String REQUEST_CACHE_REGION = "items-by-request";
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i where i.owner.id = ?1")
     Page<Item> findByOwnerId(Long ownerId, Pageable page);
 
-    @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            "and i.available = true")
-    Page<Item> search(String text, Pageable page);
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EntityBatchReader.FETCH_SIZE))
+    @Query("select i from Item i where i.owner.id = ?1 order by i.id")
+    Stream<Item> streamByOwnerId(Long ownerId);
 
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i where i.owner.id = ?1 and i.id > ?2")
+    List<Item> findByOwnerIdAndIdGreaterThan(Long ownerId, Long id, Pageable page);
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = REQUEST_CACHE_REGION)})
     List<Item> findAllByRequestId(Long requestId, Sort sort);
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = REQUEST_CACHE_REGION)})
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds, Sort sort);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByIdIn(Collection<Long> ids, Sort sort);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findWithOwnerById(Long id);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemOwnershipDto(i.id, i.available, i.owner.id) " +
+            "from Item i where i.id = ?1")
+    Optional<ItemOwnershipDto> findOwnershipById(Long id);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemVersionDto(i.id, o.id, i.version, o.version, " +
+            "(select count(c) from Comment c where c.item.id = i.id), " +
+            "(select coalesce(max(c.id), 0L) from Comment c where c.item.id = i.id), " +
+            "(select coalesce(sum(a.version), 0L) from Comment c join c.author a where c.item.id = i.id), " +
+            "s.lastBookingId, s.nextBookingId, s.nextStart) " +
+            "from Item i join i.owner o left join ItemBookingSummary s on s.itemId = i.id " +
+            "where i.id = ?1")
+    Optional<ItemVersionDto> findVersionById(Long id);
 }
@@ -1,27 +1,55 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnershipDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.BatchResult;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto createItem(Long userId, Item item);
 
+    List<BatchResult<ItemDto>> createItems(Long userId, List<Item> items);
+
     ItemDto getItemById(Long id, Long userId);
 
+    String getItemETag(Long id, Long userId);
+
+    ItemOwnershipDto getItemOwnership(Long id);
+
+    Item getItemWithOwner(Long id);
+
     ItemDto updateItem(Long id, Long userId, Item item);
 
     List<ItemDto> getAllItems(Long userId, Integer from, Integer size);
 
     List<ItemDto> searchItems(String text, Integer from, Integer size);
 
+    void streamAllItems(Long userId, Integer from, Consumer<ItemDto> consumer);
+
+    void streamSearchItems(String text, Integer from, Consumer<ItemDto> consumer);
+
+    CursorPage<ItemDto> getAllItemsAfter(Long userId, String after, Integer limit);
+
+    CursorPage<ItemDto> searchItemsAfter(String text, String after, Integer limit);
+
     void deleteItem(Long id, Long userId);
 
+    ItemAvailabilityDto getItemAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to);
+
     CommentDto createComment(CommentDto commentDto, Long itemId, Long userId);
 
     List<CommentDto> getCommentsByItemId(Long itemId);
 
     List<ItemDto> getItemsByRequestId(Long requestId);
+
+    Map<Long, List<ItemDto>> getItemsByRequestIds(Collection<Long> requestIds);
 }
@@ -7,74 +7,166 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.error.baseExceptions.ForbiddenException;
 import ru.practicum.shareit.error.baseExceptions.ValidationError;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnershipDto;
 import ru.practicum.shareit.item.exceptions.ItemNotFound;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.service.MapperService;
+import ru.practicum.shareit.service.RequestLookup;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResult;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.EntityBatchReader;
 import ru.practicum.shareit.utils.Pagination;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int SEARCH_BATCH_SIZE = 1000;
+
     private final MapperService mapperService;
     private final UserService userService;
     private final UserMapper userMapper;
     private final ItemRepository repository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemSearchIndex searchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityBatchReader entityBatchReader;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final RequestLookup requestLookup;
 
     @Override
+    @Transactional
     public ItemDto createItem(Long userId, Item item) {
         UserDto user = validateUser(userId);
-        log.info("Создан новый предмет: " + item);
         item.setOwner(userMapper.toUser(user));
 
-        return mapperService.toItemDto(repository.save(item), null);
+        Item savedItem = repository.save(item);
+        log.info("Создан новый предмет с id = {} пользователем с id = {}", savedItem.getId(), userId);
+        searchIndex.index(savedItem);
+        return mapperService.toItemDto(savedItem, null);
+    }
+
+    @Override
+    @Transactional
+    public List<BatchResult<ItemDto>> createItems(Long userId, List<Item> items) {
+        User owner = userMapper.toUser(validateUser(userId));
+
+        List<BatchResult<ItemDto>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        List<Item> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            try {
+                validateBatchItem(item);
+            } catch (ValidationError e) {
+                results.set(i, BatchResult.rejected(i, e.getMessage()));
+                continue;
+            }
+
+            item.setId(null);
+            item.setOwner(owner);
+            accepted.add(item);
+            acceptedIndexes.add(i);
+        }
+
+        List<Item> savedItems = repository.saveAll(accepted);
+        for (int i = 0; i < savedItems.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            searchIndex.index(savedItems.get(i));
+            results.set(index, BatchResult.created(index, mapperService.toItemDto(savedItems.get(i), null)));
+        }
+
+        log.info("Пакетное добавление предметов пользователем с id = {}: добавлено {} из {}",
+                userId, savedItems.size(), items.size());
+        return results;
     }
 
     @Override
     public ItemDto getItemById(Long id, Long userId) {
         Optional<Item> item = repository.findById(id);
         if (item.isEmpty()) {
-            log.info(String.format("Предмет с id = %d не найден", id));
-            throw new ItemNotFound("Вещь с данным id не найдена");
+            log.info("Предмет с id = {} не найден", id);
+            throw new ItemNotFound(ItemNotFound.MESSAGE);
         }
 
-        log.info("Получена информация о предмете с id = " + id);
+        log.info("Получена информация о предмете с id = {}", id);
 
         if (userId.equals(item.get().getOwner().getId())) {
-            return mapperService.toItemDtoWithBooking(item.get(), getLastBooking(id), getNextBooking(id), getCommentsByItemId(id));
+            ItemBookingSummary summary = itemBookingSummaryService.getSummaries(List.of(id)).get(id);
+            return mapperService.toItemDtoWithBooking(
+                    item.get(),
+                    summary == null ? null : summary.toLastBooking(),
+                    summary == null ? null : summary.toNextBooking(),
+                    getCommentsByItemId(id)
+            );
         } else {
             return mapperService.toItemDto(item.get(), getCommentsByItemId(id));
         }
     }
 
     @Override
-    public ItemDto updateItem(Long id, Long userId, Item item) {
-        if (repository.findById(id).isEmpty()) {
-            log.info(String.format("Предмет с id = %d не найден", id));
-            throw new ItemNotFound("Вещь с данным id не найдена");
-        }
+    public String getItemETag(Long id, Long userId) {
+        return repository.findVersionById(id)
+                .orElseThrow(() -> new ItemNotFound(ItemNotFound.MESSAGE))
+                .toETag(userId, LocalDateTime.now());
+    }
+
+    @Override
+    public ItemOwnershipDto getItemOwnership(Long id) {
+        ItemOwnershipDto ownership = requestLookup.get(ItemOwnershipDto.class, id, () -> repository.findOwnershipById(id)
+                .orElseThrow(() -> {
+                    log.info("Предмет с id = {} не найден", id);
+                    return new ItemNotFound(ItemNotFound.MESSAGE);
+                }));
+        return new ItemOwnershipDto(ownership.getId(), ownership.getAvailable(), ownership.getOwnerId());
+    }
+
+    @Override
+    public Item getItemWithOwner(Long id) {
+        return repository.findWithOwnerById(id)
+                .orElseThrow(() -> new ItemNotFound(ItemNotFound.MESSAGE));
+    }
 
-        Item foundItem = repository.findById(id).get();
+    @Override
+    @Transactional
+    public ItemDto updateItem(Long id, Long userId, Item item) {
+        Item foundItem = repository.findById(id).orElseThrow(() -> {
+            log.info("Предмет с id = {} не найден", id);
+            return new ItemNotFound(ItemNotFound.MESSAGE);
+        });
 
         if (!userId.equals(foundItem.getOwner().getId())) {
             log.info("Попытка изменить вещь другим пользователем");
@@ -84,19 +176,20 @@ public class ItemServiceImpl implements ItemService {
         UserDto user = validateUser(userId);
 
         item.setId(id);
+        item.setVersion(foundItem.getVersion());
         item.setOwner(userMapper.toUser(user));
 
         if (item.getName() == null) {
             item.setName(foundItem.getName());
         } else if (item.getName().isBlank()) {
-            log.info("Обновление предмета не прошло валидацию названия (" + item + ")");
+            log.info("Обновление предмета с id = {} не прошло валидацию названия", id);
             throw new ValidationError("Название предмета не может быть пустым");
         }
 
         if (item.getDescription() == null) {
             item.setDescription(foundItem.getDescription());
         } else if (item.getDescription().isBlank()) {
-            log.info("Обновление предмета не прошло валидацию описания (" + item + ")");
+            log.info("Обновление предмета с id = {} не прошло валидацию описания", id);
             throw new ValidationError("Описание предмета не может быть пустым");
         }
 
@@ -108,8 +201,11 @@ public class ItemServiceImpl implements ItemService {
             item.setRequestId(foundItem.getRequestId());
         }
 
-        log.info("Обновлён предмет: " + item);
-        return mapperService.toItemDto(repository.save(item), getCommentsByItemId(id));
+        log.info("Обновлён предмет с id = {}", id);
+        requestLookup.evict(ItemOwnershipDto.class, id);
+        Item savedItem = repository.save(item);
+        searchIndex.index(savedItem);
+        return mapperService.toItemDto(savedItem, getCommentsByItemId(id));
     }
 
     @Override
@@ -127,9 +223,7 @@ public class ItemServiceImpl implements ItemService {
             page = repository.findByOwnerId(userId, pageable);
 
             while (page.hasContent()) {
-                listItemDto.addAll(page.stream().map(
-                        item -> mapperService.toItemDtoWithBooking(item, getLastBooking(item.getId()), getNextBooking(item.getId()), getCommentsByItemId(item.getId()))
-                ).collect(Collectors.toList()));
+                listItemDto.addAll(toItemDtosWithBooking(page.getContent()));
                 pageable = pageable.next();
                 page = repository.findByOwnerId(userId, pageable);
             }
@@ -137,9 +231,7 @@ public class ItemServiceImpl implements ItemService {
             for (int i = pager.getPageStart(); i < pager.getPagesAmount(); i++) {
                 pageable = PageRequest.of(i, pager.getPageSize(), sort);
                 page = repository.findByOwnerId(userId, pageable);
-                listItemDto.addAll(page.stream().map(
-                        item -> mapperService.toItemDtoWithBooking(item, getLastBooking(item.getId()), getNextBooking(item.getId()), getCommentsByItemId(item.getId()))
-                ).collect(Collectors.toList()));
+                listItemDto.addAll(toItemDtosWithBooking(page.getContent()));
             }
 
             listItemDto = listItemDto.stream().limit(size).collect(Collectors.toList());
@@ -155,56 +247,139 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
 
+        List<Long> foundIds = searchIndex.search(text).stream()
+                .skip(from)
+                .limit(size == null ? Long.MAX_VALUE : size)
+                .collect(Collectors.toList());
+
         List<ItemDto> listItemDto = new ArrayList<>();
-        Pageable pageable;
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
-        Page<Item> page;
-        Pagination pager = new Pagination(from, size);
 
-        if (size == null) {
-            pageable = PageRequest.of(pager.getPageStart(), pager.getPageSize(), sort);
-            page = repository.search(text, pageable);
+        for (int i = 0; i < foundIds.size(); i += SEARCH_BATCH_SIZE) {
+            List<Long> batch = foundIds.subList(i, Math.min(i + SEARCH_BATCH_SIZE, foundIds.size()));
+            listItemDto.addAll(toItemDtosWithBooking(repository.findAllByIdIn(batch, sort)));
+        }
 
-            while (page.hasContent()) {
-                listItemDto.addAll(page.stream().map(
-                        item -> mapperService.toItemDtoWithBooking(item, getLastBooking(item.getId()), getNextBooking(item.getId()), getCommentsByItemId(item.getId()))
-                ).collect(Collectors.toList()));
-                pageable = pageable.next();
-                page = repository.search(text, pageable);
-            }
-        } else {
-            for (int i = pager.getPageStart(); i < pager.getPagesAmount(); i++) {
-                pageable = PageRequest.of(i, pager.getPageSize(), sort);
-                page = repository.search(text, pageable);
-                listItemDto.addAll(page.stream().map(
-                        item -> mapperService.toItemDtoWithBooking(item, getLastBooking(item.getId()), getNextBooking(item.getId()), getCommentsByItemId(item.getId()))
-                ).collect(Collectors.toList()));
-            }
+        log.info("Поиск предметов по подстроке \"{}\"", text);
+        return listItemDto;
+    }
 
-            listItemDto = listItemDto.stream().limit(size).collect(Collectors.toList());
+    @Override
+    public void streamAllItems(Long userId, Integer from, Consumer<ItemDto> consumer) {
+        validateUser(userId);
+
+        log.info("Выгрузка списка всех предметов пользователя с id = {}", userId);
+        entityBatchReader.read(
+                repository.streamByOwnerId(userId),
+                from,
+                items -> toItemDtosWithBooking(items).forEach(consumer)
+        );
+    }
+
+    @Override
+    public void streamSearchItems(String text, Integer from, Consumer<ItemDto> consumer) {
+        if (text.isBlank()) {
+            return;
         }
 
-        log.info(String.format("Поиск предметов по подстроке \"%s\"", text));
-        return listItemDto;
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+
+        log.info("Поиск предметов по подстроке \"{}\"", text);
+        entityBatchReader.read(
+                searchIndex.search(text).stream(),
+                from,
+                ids -> toItemDtosWithBooking(repository.findAllByIdIn(ids, sort)).forEach(consumer)
+        );
     }
 
     @Override
-    public void deleteItem(Long id, Long userId) {
-        if (repository.findById(id).isEmpty()) {
-            log.info(String.format("Предмет с id = %d не найден", id));
-            throw new ItemNotFound("Вещь с данным id не найдена");
+    public CursorPage<ItemDto> getAllItemsAfter(Long userId, String after, Integer limit) {
+        validateUser(userId);
+
+        Cursor cursor = Cursor.decode(after);
+        List<Item> items = repository.findByOwnerIdAndIdGreaterThan(
+                userId,
+                cursor == null ? 0L : cursor.getId(),
+                PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.ASC, "id"))
+        );
+
+        log.info("Получен список предметов пользователя с id = {}", userId);
+        return CursorPage.of(items, limit, this::toItemDtosWithBooking, item -> Cursor.of(item.getId()));
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchItemsAfter(String text, String after, Integer limit) {
+        if (text.isBlank()) {
+            return new CursorPage<>(new ArrayList<>(), null);
         }
 
-        Item foundItem = repository.findById(id).get();
+        Cursor cursor = Cursor.decode(after);
+        long afterId = cursor == null ? 0L : cursor.getId();
+        List<Long> foundIds = searchIndex.search(text).stream()
+                .filter(id -> id > afterId)
+                .limit(limit + 1)
+                .collect(Collectors.toList());
 
-        log.info("Удалён предмет с id = " + id);
+        log.info("Поиск предметов по подстроке \"{}\"", text);
+        return CursorPage.of(
+                repository.findAllByIdIn(foundIds, Sort.by(Sort.Direction.ASC, "id")),
+                limit,
+                this::toItemDtosWithBooking,
+                item -> Cursor.of(item.getId())
+        );
+    }
+
+    @Override
+    @Transactional
+    public void deleteItem(Long id, Long userId) {
+        Item foundItem = repository.findById(id).orElseThrow(() -> {
+            log.info("Предмет с id = {} не найден", id);
+            return new ItemNotFound(ItemNotFound.MESSAGE);
+        });
+
+        log.info("Удалён предмет с id = {}", id);
         validateUser(userId);
 
         if (!userId.equals(foundItem.getOwner().getId())) {
             throw new ForbiddenException("Текущий пользователь не может удалить данную вещь");
         }
 
+        requestLookup.evict(ItemOwnershipDto.class, id);
         repository.deleteById(id);
+        searchIndex.remove(id);
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to) {
+        validateUser(userId);
+
+        if (!from.isBefore(to)) {
+            throw new ValidationError("Начало периода должно быть раньше его окончания");
+        }
+
+        Item item = repository.findById(id)
+                .orElseThrow(() -> new ItemNotFound(ItemNotFound.MESSAGE));
+
+        log.info("Проверка доступности предмета с id = {}", id);
+        return new ItemAvailabilityDto(id, from, to, item.getAvailable() && bookingIntervalIndex.isFree(id, from, to));
+    }
+
+    private void validateBatchItem(Item item) {
+        if (item == null) {
+            throw new ValidationError("Пустая запись");
+        }
+
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new ValidationError("Название предмета не может быть пустым");
+        }
+
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            throw new ValidationError("Описание предмета не может быть пустым");
+        }
+
+        if (item.getAvailable() == null) {
+            throw new ValidationError("Не указана доступность предмета");
+        }
     }
 
     private UserDto validateUser(Long userId) {
@@ -216,6 +391,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(CommentDto commentDto, Long itemId, Long userId) {
         validateUser(userId);
 
@@ -242,26 +418,62 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemDto> getItemsByRequestId(Long requestId) {
-        return repository.findAllByRequestId(requestId, Sort.by(Sort.Direction.DESC, "id")).stream()
-                .map(item -> mapperService.toItemDto(item, getCommentsByItemId(item.getId())))
-                .collect(Collectors.toList());
+        return getItemsByRequestIds(List.of(requestId)).getOrDefault(requestId, new ArrayList<>());
     }
 
-    private BookingOutputDto getLastBooking(Long itemId) {
-        Booking booking = bookingRepository.findFirstByItem_IdAndStartBeforeAndStatusOrderByStartDesc(itemId, LocalDateTime.now(), BookingStatus.APPROVED);
-        if (booking != null) {
-            return mapperService.toBookingOutputDto(booking);
+    @Override
+    public Map<Long, List<ItemDto>> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<Item> items = repository.findAllByRequestIdIn(requestIds, Sort.by(Sort.Direction.DESC, "id"));
+        if (items.isEmpty()) {
+            return new HashMap<>();
         }
 
-        return null;
+        Map<Long, List<CommentDto>> comments = getCommentsByItemIds(
+                items.stream().map(Item::getId).collect(Collectors.toList())
+        );
+
+        return items.stream()
+                .collect(Collectors.groupingBy(
+                        Item::getRequestId,
+                        Collectors.mapping(
+                                item -> mapperService.toItemDto(item, comments.getOrDefault(item.getId(), new ArrayList<>())),
+                                Collectors.toList()
+                        )
+                ));
     }
 
-    private BookingOutputDto getNextBooking(Long itemId) {
-        Booking booking = bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(itemId, LocalDateTime.now(), BookingStatus.APPROVED);
-        if (booking != null) {
-            return mapperService.toBookingOutputDto(booking);
+    private List<ItemDto> toItemDtosWithBooking(List<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return null;
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(itemIds);
+        Map<Long, List<CommentDto>> comments = getCommentsByItemIds(itemIds);
+
+        return items.stream()
+                .map(item -> {
+                    ItemBookingSummary summary = summaries.get(item.getId());
+                    return mapperService.toItemDtoWithBooking(
+                            item,
+                            summary == null ? null : summary.toLastBooking(),
+                            summary == null ? null : summary.toNextBooking(),
+                            comments.getOrDefault(item.getId(), new ArrayList<>())
+                    );
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<CommentDto>> getCommentsByItemIds(List<Long> itemIds) {
+        return commentRepository.findAllByItem_IdIn(itemIds, Sort.by(Sort.Direction.DESC, "created")).stream()
+                .collect(Collectors.groupingBy(
+                        comment -> comment.getItem().getId(),
+                        Collectors.mapping(mapperService::toCommentDto, Collectors.toList())
+                ));
     }
 }
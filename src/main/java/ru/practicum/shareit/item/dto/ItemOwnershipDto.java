@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemOwnershipDto {
+    private Long id;
+    private Boolean available;
+    private Long ownerId;
+}
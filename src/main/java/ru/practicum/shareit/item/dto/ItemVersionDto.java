@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything an item response depends on, read in one query: the item and owner versions,
+ * the comments with their authors and, for the owner, the booking summary row.
+ */
+@Data
+@AllArgsConstructor
+public class ItemVersionDto {
+    private Long id;
+    private Long ownerId;
+    private Long itemVersion;
+    private Long ownerVersion;
+    private Long comments;
+    private Long lastCommentId;
+    private Long authorVersions;
+    private Long lastBookingId;
+    private Long nextBookingId;
+    private LocalDateTime nextStart;
+
+    /**
+     * Returns {@code null} when the owner's summary row is stale, since the response then recomputes
+     * the last and next bookings and the row no longer describes it.
+     */
+    public String toETag(Long userId, LocalDateTime now) {
+        String tag = String.format("i%d-%d-%d-%d-%d-%d", id, itemVersion, ownerVersion, comments, lastCommentId, authorVersions);
+        if (!ownerId.equals(userId)) {
+            return "\"" + tag + "\"";
+        }
+
+        if (nextStart != null && !nextStart.isAfter(now)) {
+            return null;
+        }
+
+        return String.format("\"%s-o%d-%d\"", tag, lastBookingId, nextBookingId);
+    }
+}
@@ -1,6 +1,10 @@
 package ru.practicum.shareit.item.exceptions;
 
-public class ItemNotFound extends RuntimeException {
+import ru.practicum.shareit.error.baseExceptions.DomainException;
+
+public class ItemNotFound extends DomainException {
+    public static final String MESSAGE = "Вещь с данным id не найдена";
+
     public ItemNotFound(String message) {
         super(message);
     }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+class IndexedItem {
+    private final Set<String> tokens;
+    private final boolean available;
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over item names and descriptions.
+ * Every query token is matched as a prefix of the indexed tokens, the results of all query tokens are intersected
+ * and only available items are returned, ordered by id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final NavigableMap<String, NavigableSet<Long>> postings = new TreeMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+            Page<Item> page = itemRepository.findAll(pageable);
+            while (page.hasContent()) {
+                page.forEach(item -> put(item.getId(), new IndexedItem(tokenize(item), Boolean.TRUE.equals(item.getAvailable()))));
+                pageable = pageable.next();
+                page = itemRepository.findAll(pageable);
+            }
+
+            log.info("Поисковый индекс предметов построен, проиндексировано предметов: {}", documents.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        IndexedItem previous;
+
+        lock.writeLock().lock();
+        try {
+            previous = put(item.getId(), new IndexedItem(tokenize(item), Boolean.TRUE.equals(item.getAvailable())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        restoreOnRollback(item.getId(), previous);
+    }
+
+    public void remove(Long itemId) {
+        IndexedItem previous;
+
+        lock.writeLock().lock();
+        try {
+            previous = put(itemId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        restoreOnRollback(itemId, previous);
+    }
+
+    public List<Long> search(String text) {
+        List<String> queryTokens = new ArrayList<>(tokenize(text));
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> matches = queryTokens.stream()
+                    .map(this::findByPrefix)
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .collect(Collectors.toList());
+
+            NavigableSet<Long> smallest = matches.get(0);
+            List<NavigableSet<Long>> rest = matches.subList(1, matches.size());
+
+            return smallest.stream()
+                    .filter(id -> rest.stream().allMatch(postingList -> postingList.contains(id)))
+                    .filter(id -> documents.get(id).isAvailable())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableSet<Long> findByPrefix(String prefix) {
+        NavigableMap<String, NavigableSet<Long>> matchingTokens =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+        if (matchingTokens.size() == 1) {
+            return matchingTokens.firstEntry().getValue();
+        }
+
+        NavigableSet<Long> result = new TreeSet<>();
+        matchingTokens.values().forEach(result::addAll);
+        return result;
+    }
+
+    private IndexedItem put(Long itemId, IndexedItem document) {
+        IndexedItem previous = document == null ? documents.remove(itemId) : documents.put(itemId, document);
+
+        if (previous != null) {
+            previous.getTokens().forEach(token -> {
+                NavigableSet<Long> postingList = postings.get(token);
+                postingList.remove(itemId);
+                if (postingList.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        }
+
+        if (document != null) {
+            document.getTokens().forEach(token -> postings.computeIfAbsent(token, key -> new TreeSet<>()).add(itemId));
+        }
+
+        return previous;
+    }
+
+    private void restoreOnRollback(Long itemId, IndexedItem previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    lock.writeLock().lock();
+                    try {
+                        put(itemId, previous);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    private static Set<String> tokenize(Item item) {
+        Set<String> tokens = tokenize(item.getName());
+        tokens.addAll(tokenize(item.getDescription()));
+        return tokens;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new TreeSet<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+}
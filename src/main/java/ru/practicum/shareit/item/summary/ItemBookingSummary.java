@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed last and next approved bookings of an item, so item reads do not have to look them up in bookings.
+ * Items without approved bookings have no row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    private Long itemId;
+
+    private Long lastBookingId;
+    private Long lastBookerId;
+    private LocalDateTime lastStart;
+    private LocalDateTime lastEnd;
+
+    private Long nextBookingId;
+    private Long nextBookerId;
+    private LocalDateTime nextStart;
+    private LocalDateTime nextEnd;
+
+    public BookingOutputDto toLastBooking() {
+        return lastBookingId == null ? null : new BookingOutputDto(lastBookingId, lastBookerId, lastStart, lastEnd);
+    }
+
+    public BookingOutputDto toNextBooking() {
+        return nextBookingId == null ? null : new BookingOutputDto(nextBookingId, nextBookerId, nextStart, nextEnd);
+    }
+
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+}
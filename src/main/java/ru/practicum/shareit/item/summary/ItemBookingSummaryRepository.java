@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long>, ItemBookingSummaryRepositoryCustom {
+    List<ItemBookingSummary> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.nextStart <= ?1 order by s.itemId")
+    List<Long> findItemIdsStartedBefore(LocalDateTime now);
+
+    // Row locks on the items serialise concurrent refreshes of the same summary rows, also across instances
+    @Query(value = "SELECT id FROM items WHERE id IN (:itemIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockItems(@Param("itemIds") Collection<Long> itemIds);
+
+    @Modifying
+    @Query("delete from ItemBookingSummary s where s.itemId in ?1")
+    void deleteAllByItemIds(Collection<Long> itemIds);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.summary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ItemBookingSummaryRepositoryCustom {
+    int insertForItems(Collection<Long> itemIds, LocalDateTime now);
+
+    int insertForAllItems(LocalDateTime now);
+}
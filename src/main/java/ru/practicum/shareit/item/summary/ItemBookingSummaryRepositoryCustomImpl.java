@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.summary;
+
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Native inserts of summary rows. Hibernate treats a native statement without query spaces as touching
+ * every table and evicts the whole second-level cache after it, so each statement declares that it only
+ * writes item_booking_summary. Afterwards only the summaries already loaded in the persistence context
+ * are detached; the bookings and items of the surrounding request stay managed.
+ */
+public class ItemBookingSummaryRepositoryCustomImpl implements ItemBookingSummaryRepositoryCustom {
+    private static final String INSERT_SUMMARIES = "INSERT INTO item_booking_summary (item_id, last_booking_id, last_booker_id, last_start, last_end, " +
+            "next_booking_id, next_booker_id, next_start, next_end) " +
+            "SELECT i.id, l.id, l.booker_id, l.start_date, l.end_date, n.id, n.booker_id, n.start_date, n.end_date " +
+            "FROM items i " +
+            "LEFT JOIN bookings l ON l.id = (SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date < :now " +
+            "ORDER BY b.start_date DESC, b.id DESC LIMIT 1) " +
+            "LEFT JOIN bookings n ON n.id = (SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > :now " +
+            "ORDER BY b.start_date, b.id DESC LIMIT 1) " +
+            "WHERE (l.id IS NOT NULL OR n.id IS NOT NULL) AND ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertForItems(Collection<Long> itemIds, LocalDateTime now) {
+        int rows = createInsert("i.id IN (:itemIds)")
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .executeUpdate();
+        detachSummaries();
+        return rows;
+    }
+
+    @Override
+    public int insertForAllItems(LocalDateTime now) {
+        int rows = createInsert("i.id IN (SELECT a.item_id FROM bookings a WHERE a.status = 'APPROVED')")
+                .setParameter("now", now)
+                .executeUpdate();
+        detachSummaries();
+        return rows;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private NativeQuery createInsert(String restriction) {
+        return entityManager.createNativeQuery(INSERT_SUMMARIES + restriction)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ItemBookingSummary.class);
+    }
+
+    private void detachSummaries() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof ItemBookingSummary) {
+                entityManager.detach(entry.getKey());
+            }
+        }
+    }
+}
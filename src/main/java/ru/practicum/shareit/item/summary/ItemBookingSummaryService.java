@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the item_booking_summary read model up to date. Rows are recomputed when a booking of the item is
+ * approved or cancelled, and rolled forward on a schedule once the next booking has started. Reads that run
+ * before the roll-forward recompute stale rows on the fly, so they never report a started booking as next.
+ * A refresh locks the rows of its items first, so two approvals of the same item, or an approval and
+ * the roll-forward, rewrite the summary one after another instead of racing on its primary key.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, summary -> summary));
+
+        List<Long> staleIds = summaries.values().stream()
+                .filter(summary -> summary.isStale(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!staleIds.isEmpty()) {
+            staleIds.forEach(summaries::remove);
+            summaries.putAll(compute(staleIds, now));
+        }
+
+        return summaries;
+    }
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        refresh(itemIds, LocalDateTime.now());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.item-summary.roll-forward-delay:60000}",
+            fixedDelayString = "${shareit.item-summary.roll-forward-delay:60000}")
+    @Transactional
+    public void rollForward() {
+        rollForward(LocalDateTime.now());
+    }
+
+    @Transactional
+    public void rollForward(LocalDateTime now) {
+        List<Long> itemIds = summaryRepository.findItemIdsStartedBefore(now);
+        for (int i = 0; i < itemIds.size(); i += REFRESH_BATCH_SIZE) {
+            refresh(itemIds.subList(i, Math.min(i + REFRESH_BATCH_SIZE, itemIds.size())), now);
+        }
+
+        if (!itemIds.isEmpty()) {
+            log.info("Сводка бронирований сдвинута для предметов: {}", itemIds.size());
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        summaryRepository.deleteAllInBatch();
+        int rows = summaryRepository.insertForAllItems(LocalDateTime.now());
+
+        log.info("Сводка бронирований построена, предметов: {}", rows);
+    }
+
+    private void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        summaryRepository.lockItems(itemIds);
+        summaryRepository.deleteAllByItemIds(itemIds);
+        summaryRepository.insertForItems(itemIds, now);
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+
+        for (Booking booking : bookingRepository.findLastBookingsByItemIds(itemIds, now, BookingStatus.APPROVED)) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(booking.getItem().getId(), this::emptySummary);
+            if (summary.getLastBookingId() == null || summary.getLastBookingId() < booking.getId()) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBooker().getId());
+                summary.setLastStart(booking.getStart());
+                summary.setLastEnd(booking.getEnd());
+            }
+        }
+
+        for (Booking booking : bookingRepository.findNextBookingsByItemIds(itemIds, now, BookingStatus.APPROVED)) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(booking.getItem().getId(), this::emptySummary);
+            if (summary.getNextBookingId() == null || summary.getNextBookingId() < booking.getId()) {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBooker().getId());
+                summary.setNextStart(booking.getStart());
+                summary.setNextEnd(booking.getEnd());
+            }
+        }
+
+        return summaries;
+    }
+
+    private ItemBookingSummary emptySummary(Long itemId) {
+        ItemBookingSummary summary = new ItemBookingSummary();
+        summary.setItemId(itemId);
+        return summary;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through only a random share of the events of one logger, e.g. the SQL statements of {@code org.hibernate.SQL}.
+ * Rejected events are dropped before logback builds them, so the skipped statements cost no allocation.
+ * Level checks ({@code isDebugEnabled()}) are never sampled, otherwise a guarded call would be sampled twice.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private String loggerName;
+    private double rate = 1.0;
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || !logger.getName().equals(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
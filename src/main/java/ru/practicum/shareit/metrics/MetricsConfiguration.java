@@ -0,0 +1,18 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+    @Bean
+    public FilterRegistrationBean<RequestQueryMetricsFilter> requestQueryMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.sql-budget.max-statements:10}") int budget,
+            @Value("${shareit.sql-budget.repeat-threshold:5}") int repeatThreshold) {
+        return new FilterRegistrationBean<>(new RequestQueryMetricsFilter(meterRegistry, budget, repeatThreshold));
+    }
+}
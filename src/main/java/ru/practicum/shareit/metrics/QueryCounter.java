@@ -0,0 +1,47 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread and how often each statement shape repeats.
+ * A shape is the statement with its {@code in} lists collapsed, so the same query for a different number of ids
+ * is still recognised as a repeat.
+ * Registered through {@code hibernate.session_factory.statement_inspector}, so Hibernate creates
+ * the instance itself and the counters have to be static.
+ */
+public class QueryCounter implements StatementInspector {
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final ThreadLocal<Statements> STATEMENTS = ThreadLocal.withInitial(Statements::new);
+
+    public static void reset() {
+        STATEMENTS.remove();
+    }
+
+    public static long get() {
+        return STATEMENTS.get().count;
+    }
+
+    public static Map<String, Integer> repeated(int threshold) {
+        return STATEMENTS.get().shapes.entrySet().stream()
+                .filter(shape -> shape.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = STATEMENTS.get();
+        statements.count++;
+        statements.shapes.merge(PARAMETER_LIST.matcher(sql).replaceAll("(?...)"), 1, Integer::sum);
+        return sql;
+    }
+
+    private static class Statements {
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private long count;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records the number of SQL statements every HTTP request ran as {@code shareit.http.queries},
+ * tagged by method and URI template like {@code http.server.requests}.
+ * Requests over the statement budget are counted as {@code shareit.http.queries.over.budget} and logged,
+ * and statement shapes repeated at least {@code repeatThreshold} times are logged as a likely N+1.
+ * Registered by {@link MetricsConfiguration}, so the web test slices do not need a meter registry.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+    public static final String METRIC = "shareit.http.queries";
+    public static final String OVER_BUDGET_METRIC = "shareit.http.queries.over.budget";
+
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+    private final int repeatThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request);
+        }
+    }
+
+    private void record(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        long queries = QueryCounter.get();
+
+        DistributionSummary.builder(METRIC)
+                .baseUnit("queries")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(queries);
+
+        if (queries > budget) {
+            Counter.builder(OVER_BUDGET_METRIC)
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Запрос {} {} выполнил SQL-запросов: {} при бюджете {}", request.getMethod(), uri, queries, budget);
+        }
+
+        Map<String, Integer> repeated = QueryCounter.repeated(repeatThreshold);
+        repeated.forEach((sql, count) -> log.warn("Запрос {} {} повторил SQL-запрос {} раз: {}",
+                request.getMethod(), uri, count, sql));
+    }
+}
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.request;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.JsonArrayWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -15,6 +22,7 @@ import java.util.List;
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemRequestDto create(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody ItemRequestDto itemRequestDto) {
@@ -22,7 +30,12 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long requestId) {
+    public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long requestId,
+                                             WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getItemRequestETag(requestId, userId))) {
+            return null;
+        }
+
         return itemRequestService.getItemRequestById(requestId, userId);
     }
 
@@ -31,10 +44,26 @@ public class ItemRequestController {
         return itemRequestService.getOwnItemRequests(userId);
     }
 
-    @GetMapping("/all")
+    @GetMapping(path = "/all", params = {"size", "!limit"})
     public List<ItemRequestDto> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                                   @RequestParam(required = false) @Min(0) Integer size) {
+                                                   @RequestParam @Min(0) Integer size) {
         return itemRequestService.getAllItemRequests(userId, from, size);
     }
+
+    @GetMapping(path = "/all", params = {"!size", "!limit"})
+    public void streamAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                      @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                      HttpServletResponse response) throws IOException {
+        JsonArrayWriter<ItemRequestDto> writer = new JsonArrayWriter<>(objectMapper, response);
+        itemRequestService.streamAllItemRequests(userId, from, writer);
+        writer.finish();
+    }
+
+    @GetMapping(path = "/all", params = "limit")
+    public ResponseEntity<List<ItemRequestDto>> getAllItemRequestsAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                        @RequestParam(required = false) String after,
+                                                                        @RequestParam @Min(1) @Max(1000) Integer limit) {
+        return itemRequestService.getAllItemRequestsAfter(userId, after, limit).toResponseEntity();
+    }
 }
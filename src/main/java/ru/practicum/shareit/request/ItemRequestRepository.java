@@ -3,15 +3,57 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import ru.practicum.shareit.request.dto.ItemRequestVersionDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.utils.EntityBatchReader;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRequestRepository extends PagingAndSortingRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r where r.requestor.id = ?1")
     List<ItemRequest> findAllByRequestorId(Long requestorId, Sort sort);
 
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r where r.requestor.id <> ?1")
     Page<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r where r.requestor.id <> ?1 order by r.created desc")
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long userId);
+
+    @EntityGraph(attributePaths = "requestor")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EntityBatchReader.FETCH_SIZE))
+    @Query("select r from ItemRequest r where r.requestor.id <> ?1 order by r.created desc, r.id desc")
+    Stream<ItemRequest> streamAllByRequestorIdNot(Long userId);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r where r.requestor.id <> ?1 order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestorIdNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorIdNotCreatedBefore(Long userId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestVersionDto(r.id, r.version, u.version, " +
+            "(select count(i) from Item i where i.requestId = r.id), " +
+            "(select coalesce(max(i.id), 0L) from Item i where i.requestId = r.id), " +
+            "(select coalesce(sum(i.version), 0L) from Item i where i.requestId = r.id), " +
+            "(select coalesce(sum(o.version), 0L) from Item i join i.owner o where i.requestId = r.id)) " +
+            "from ItemRequest r join r.requestor u " +
+            "where r.id = ?1")
+    Optional<ItemRequestVersionDto> findVersionById(Long id);
 }
@@ -1,15 +1,23 @@
 package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemRequestService {
     ItemRequestDto create(ItemRequestDto itemRequestDto, Long requestorId);
 
     ItemRequestDto getItemRequestById(Long itemRequestId, Long requestorId);
 
+    String getItemRequestETag(Long itemRequestId, Long requestorId);
+
     List<ItemRequestDto> getOwnItemRequests(Long requestorId);
 
     List<ItemRequestDto> getAllItemRequests(Long requestorId, Integer from, Integer size);
+
+    void streamAllItemRequests(Long requestorId, Integer from, Consumer<ItemRequestDto> consumer);
+
+    CursorPage<ItemRequestDto> getAllItemRequestsAfter(Long requestorId, String after, Integer limit);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -15,28 +16,37 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.service.MapperService;
 import ru.practicum.shareit.service.ValidationService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.EntityBatchReader;
 import ru.practicum.shareit.utils.Pagination;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final MapperService mapperService;
     private final ValidationService validationService;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemService itemService;
+    private final EntityBatchReader entityBatchReader;
 
     @Override
+    @Transactional
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long requestorId) {
         UserDto user = validationService.getUserById(requestorId);
 
         itemRequestDto.setRequestor(user);
-        itemRequestDto.setCreated(LocalDateTime.now());
+        itemRequestDto.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         ItemRequest req = itemRequestRepository.save(mapperService.toItemRequest(itemRequestDto));
         itemRequestDto.setId(req.getId());
         return itemRequestDto;
@@ -54,17 +64,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return mapperService.toItemRequestDto(itemRequest, itemDtos);
     }
 
+    @Override
+    public String getItemRequestETag(Long itemRequestId, Long requestorId) {
+        validationService.getUserById(requestorId);
+
+        return itemRequestRepository.findVersionById(itemRequestId)
+                .orElseThrow(() -> new ItemRequestNotFound(String.format("Запрос с id = %d не найден", itemRequestId)))
+                .toETag();
+    }
+
     @Override
     public List<ItemRequestDto> getOwnItemRequests(Long requestorId) {
         validationService.getUserById(requestorId);
 
-        return itemRequestRepository.findAllByRequestorId(requestorId, Sort.by(Sort.Direction.DESC, "created"))
-                .stream()
-                .map(itemRequest -> {
-                    List<ItemDto> itemDtos = itemService.getItemsByRequestId(itemRequest.getId());
-                    return mapperService.toItemRequestDto(itemRequest, itemDtos);
-                })
-                .collect(Collectors.toList());
+        return toItemRequestDtos(itemRequestRepository.findAllByRequestorId(requestorId, Sort.by(Sort.Direction.DESC, "created")));
     }
 
     @Override
@@ -75,10 +88,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         if (size == null) {
             List<ItemRequest> listItemRequest = itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(requestorId);
-            listItemRequestDto.addAll(listItemRequest.stream().skip(from).map(itemRequest -> {
-                List<ItemDto> itemDtos = itemService.getItemsByRequestId(itemRequest.getId());
-                return mapperService.toItemRequestDto(itemRequest, itemDtos);
-            }).collect(Collectors.toList()));
+            listItemRequestDto.addAll(toItemRequestDtos(listItemRequest.stream().skip(from).collect(Collectors.toList())));
         } else {
             Pageable pageable;
             Page<ItemRequest> page;
@@ -89,10 +99,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 pageable = PageRequest.of(i, pager.getPageSize(), sort);
 
                 page = itemRequestRepository.findAllByRequestorIdNot(requestorId, pageable);
-                listItemRequestDto.addAll(page.stream().map(itemRequest -> {
-                    List<ItemDto> itemDtos = itemService.getItemsByRequestId(itemRequest.getId());
-                    return mapperService.toItemRequestDto(itemRequest, itemDtos);
-                }).collect(Collectors.toList()));
+                listItemRequestDto.addAll(toItemRequestDtos(page.getContent()));
             }
 
             listItemRequestDto = listItemRequestDto.stream().limit(size).collect(Collectors.toList());
@@ -101,4 +108,46 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         return listItemRequestDto;
     }
+
+    @Override
+    public void streamAllItemRequests(Long requestorId, Integer from, Consumer<ItemRequestDto> consumer) {
+        validationService.getUserById(requestorId);
+
+        entityBatchReader.read(
+                itemRequestRepository.streamAllByRequestorIdNot(requestorId),
+                from,
+                itemRequests -> toItemRequestDtos(itemRequests).forEach(consumer)
+        );
+    }
+
+    @Override
+    public CursorPage<ItemRequestDto> getAllItemRequestsAfter(Long requestorId, String after, Integer limit) {
+        validationService.getUserById(requestorId);
+
+        Cursor cursor = Cursor.decodeWithTimestamp(after);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<ItemRequest> itemRequests = cursor == null
+                ? itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(requestorId, pageable)
+                : itemRequestRepository.findAllByRequestorIdNotCreatedBefore(requestorId, cursor.getTimestamp(), cursor.getId(), pageable);
+
+        return CursorPage.of(
+                itemRequests,
+                limit,
+                this::toItemRequestDtos,
+                itemRequest -> Cursor.of(itemRequest.getCreated(), itemRequest.getId())
+        );
+    }
+
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        Map<Long, List<ItemDto>> items = itemService.getItemsByRequestIds(
+                itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList())
+        );
+
+        return itemRequests.stream()
+                .map(itemRequest -> mapperService.toItemRequestDto(
+                        itemRequest,
+                        items.getOrDefault(itemRequest.getId(), new ArrayList<>())
+                ))
+                .collect(Collectors.toList());
+    }
 }
@@ -25,7 +25,8 @@ public class ItemRequestMapper {
                 itemRequestDto.getId(),
                 itemRequestDto.getDescription(),
                 user,
-                itemRequestDto.getCreated()
+                itemRequestDto.getCreated(),
+                0L
         );
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Everything a request response depends on, read in one query: the request and requestor versions
+ * and the items offered for it together with their owners.
+ */
+@Data
+@AllArgsConstructor
+public class ItemRequestVersionDto {
+    private Long id;
+    private Long version;
+    private Long requestorVersion;
+    private Long items;
+    private Long lastItemId;
+    private Long itemVersions;
+    private Long ownerVersions;
+
+    public String toETag() {
+        return String.format("\"r%d-%d-%d-%d-%d-%d-%d\"", id, version, requestorVersion, items, lastItemId, itemVersions, ownerVersions);
+    }
+}
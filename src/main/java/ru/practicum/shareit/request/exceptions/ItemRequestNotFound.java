@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.exceptions;
 
-public class ItemRequestNotFound extends RuntimeException {
+import ru.practicum.shareit.error.baseExceptions.DomainException;
+
+public class ItemRequestNotFound extends DomainException {
     public ItemRequestNotFound(String message) {
         super(message);
     }
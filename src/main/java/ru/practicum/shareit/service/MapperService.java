@@ -6,6 +6,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
@@ -55,6 +56,10 @@ public class MapperService {
         return bookingMapper.toBookingDto(booking, toItemDto(booking.getItem(), null), toUserDto(booking.getBooker()));
     }
 
+    public BookingDto toBookingDto(BookingView view) {
+        return bookingMapper.toBookingDto(view);
+    }
+
     public Booking toBooking(BookingDto bookingDto) {
         return bookingMapper.toBooking(bookingDto, toItem(bookingDto.getItem()), toUser(bookingDto.getBooker()));
     }
@@ -63,6 +68,10 @@ public class MapperService {
         return bookingMapper.toBooking(bookingInputDto, toItem(itemDto), toUser(userDto));
     }
 
+    public Booking toBooking(BookingInputDto bookingInputDto, Item item, UserDto userDto) {
+        return bookingMapper.toBooking(bookingInputDto, item, toUser(userDto));
+    }
+
     public BookingOutputDto toBookingOutputDto(Booking booking) {
         return bookingMapper.toBookingOutputDto(booking);
     }
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.servlet.ServletRequest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Identity map of read-only lookups that lives as long as the current HTTP request.
+ * A user or item resolved by one service is handed to every other service of the same request
+ * without another round trip to the database. The map is opened by {@link RequestLookupFilter},
+ * so outside of a request (scheduled jobs, tests, benchmarks) every lookup goes straight to the loader.
+ * Only immutable snapshots such as DTOs are stored here, never managed entities.
+ */
+@Component
+public class RequestLookup {
+    private static final String ATTRIBUTE = RequestLookup.class.getName();
+
+    public static void open(ServletRequest request) {
+        request.setAttribute(ATTRIBUTE, new HashMap<Key, Object>());
+    }
+
+    public static void close(ServletRequest request) {
+        request.removeAttribute(ATTRIBUTE);
+    }
+
+    public <T> T get(Class<T> type, Long id, Supplier<T> loader) {
+        Map<Key, Object> values = values();
+        if (values == null) {
+            return loader.get();
+        }
+
+        Key key = new Key(type, id);
+        Object value = values.get(key);
+        if (value == null) {
+            value = loader.get();
+            values.put(key, value);
+        }
+
+        return type.cast(value);
+    }
+
+    public void evict(Class<?> type, Long id) {
+        Map<Key, Object> values = values();
+        if (values != null) {
+            values.remove(new Key(type, id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Object> values() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        return (Map<Key, Object>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static class Key {
+        private final Class<?> type;
+        private final Long id;
+
+        private Key(Class<?> type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return type.equals(key.type) && Objects.equals(id, key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+}
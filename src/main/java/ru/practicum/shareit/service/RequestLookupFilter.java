@@ -0,0 +1,27 @@
+package ru.practicum.shareit.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Opens a fresh {@link RequestLookup} map for every HTTP request and drops it once the response is written.
+ */
+@Component
+public class RequestLookupFilter extends OncePerRequestFilter {
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestLookup.open(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestLookup.close(request);
+        }
+    }
+}
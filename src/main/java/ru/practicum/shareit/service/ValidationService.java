@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnershipDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -20,4 +22,12 @@ public class ValidationService {
     public ItemDto getItemById(Long id, Long userId) {
         return itemService.getItemById(id, userId);
     }
+
+    public ItemOwnershipDto getItemOwnership(Long id) {
+        return itemService.getItemOwnership(id);
+    }
+
+    public Item getItemWithOwner(Long id) {
+        return itemService.getItemWithOwner(id);
+    }
 }
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache of users for existence checks on the hot path.
+ * Entries are evicted in LRU order once the size limit is reached and expire after the configured TTL.
+ * Entries cached or invalidated inside a transaction are dropped again when the transaction completes,
+ * so a rolled back or concurrently committed change is never served from the cache.
+ * Hits, misses, evictions and the size are published as {@code shareit.user.cache.*} meters.
+ */
+@Component
+public class UserCache implements MeterBinder {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public UserCache(@Value("${shareit.user-cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.user-cache.ttl:5m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    UserCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    public Optional<UserDto> get(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            if (clock.getAsLong() - entry.createdAt >= ttlNanos) {
+                entries.remove(id);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            hits.incrementAndGet();
+            return Optional.of(copy(entry.user));
+        }
+    }
+
+    public void put(UserDto user) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(user.getId(), new Entry(copy(user), clock.getAsLong()));
+            evictOverflow();
+        }
+
+        evictAfterCompletion(user.getId(), TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    public void invalidate(Long id) {
+        remove(id);
+        evictAfterCompletion(id, null);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.user.cache", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shareit.user.cache", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("shareit.user.cache.evictions", evictions, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("shareit.user.cache.size", this, UserCache::size)
+                .register(registry);
+    }
+
+    private void remove(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void evictAfterCompletion(Long id, Integer onStatus) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (onStatus == null || onStatus == status) {
+                    remove(id);
+                }
+            }
+        });
+    }
+
+    private static UserDto copy(UserDto user) {
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    private static class Entry {
+        private final UserDto user;
+        private final long createdAt;
+
+        private Entry(UserDto user, long createdAt) {
+            this.user = user;
+            this.createdAt = createdAt;
+        }
+    }
+}
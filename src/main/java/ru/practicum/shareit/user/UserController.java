@@ -2,8 +2,10 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResult;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -25,13 +27,22 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResult<UserDto>> createUsers(@RequestBody List<User> users) {
+        return userService.createUsers(users);
+    }
+
     @PatchMapping("/{id}")
     public UserDto updateUser(@PathVariable Long id, @RequestBody User user) {
         return userService.updateUser(id, user);
     }
 
     @GetMapping("/{id}")
-    public UserDto getUser(@PathVariable Long id) {
+    public UserDto getUser(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(userService.getUserETag(id))) {
+            return null;
+        }
+
         return userService.getUserById(id);
     }
 
@@ -3,8 +3,11 @@ package ru.practicum.shareit.user;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByEmail(String email);
+
+    List<User> findAllByEmailIn(Collection<String> emails);
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResult;
 
 import java.util.List;
 
@@ -10,9 +11,13 @@ public interface UserService {
 
     UserDto createUser(User user);
 
+    List<BatchResult<UserDto>> createUsers(List<User> users);
+
     UserDto updateUser(Long id, User user);
 
     UserDto getUserById(Long id);
 
+    String getUserETag(Long id);
+
     void deleteUser(Long id);
 }
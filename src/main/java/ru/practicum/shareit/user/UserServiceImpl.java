@@ -3,22 +3,33 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.exceptions.UserNotFound;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.error.baseExceptions.ValidationError;
+import ru.practicum.shareit.service.RequestLookup;
+import ru.practicum.shareit.utils.BatchResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final RequestLookup requestLookup;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -29,22 +40,68 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto createUser(User user) {
         validateUser(user);
-        log.info("Добавлен новый пользователь: " + user);
-        return userMapper.toUserDto(repository.save(user));
+        User savedUser = repository.save(user);
+        log.info("Добавлен новый пользователь с id = {}", savedUser.getId());
+        return userMapper.toUserDto(savedUser);
     }
 
     @Override
-    public UserDto updateUser(Long id, User user) {
-        if (repository.findById(id).isEmpty()) {
-            log.info(String.format("Пользователь с id = %d не найден", id));
-            throw new UserNotFound("Пользователь с данным id не найден");
+    @Transactional
+    public List<BatchResult<UserDto>> createUsers(List<User> users) {
+        Set<String> takenEmails = new HashSet<>();
+        repository.findAllByEmailIn(users.stream()
+                        .filter(Objects::nonNull)
+                        .map(User::getEmail)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .forEach(user -> takenEmails.add(user.getEmail()));
+
+        List<BatchResult<UserDto>> results = new ArrayList<>(Collections.nCopies(users.size(), null));
+        List<User> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            try {
+                validateBatchUser(user);
+            } catch (ValidationError e) {
+                results.set(i, BatchResult.rejected(i, e.getMessage()));
+                continue;
+            }
+
+            if (!takenEmails.add(user.getEmail())) {
+                results.set(i, BatchResult.rejected(i, "Пользователь с такой почтой уже существует"));
+                continue;
+            }
+
+            user.setId(null);
+            accepted.add(user);
+            acceptedIndexes.add(i);
         }
 
-        user.setId(id);
+        List<User> savedUsers = repository.saveAll(accepted);
+        for (int i = 0; i < savedUsers.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results.set(index, BatchResult.created(index, userMapper.toUserDto(savedUsers.get(i))));
+        }
 
-        User foundUser = repository.findById(id).get();
+        log.info("Пакетное добавление пользователей: добавлено {} из {}", savedUsers.size(), users.size());
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public UserDto updateUser(Long id, User user) {
+        User foundUser = repository.findById(id).orElseThrow(() -> {
+            log.info("Пользователь с id = {} не найден", id);
+            return new UserNotFound(UserNotFound.MESSAGE);
+        });
+
+        user.setId(id);
+        user.setVersion(foundUser.getVersion());
 
         if (user.getName() == null) {
             user.setName(foundUser.getName());
@@ -58,31 +115,66 @@ public class UserServiceImpl implements UserService {
             validateUser(user);
         }
 
-        log.info("Обновлён пользователь: " + user);
+        log.info("Обновлён пользователь с id = {}", id);
+        userCache.invalidate(id);
+        requestLookup.evict(UserDto.class, id);
         return userMapper.toUserDto(repository.save(user));
     }
 
     @Override
     public UserDto getUserById(Long id) {
-        Optional<User> user = repository.findById(id);
-        if (user.isEmpty()) {
-            throw new UserNotFound("Пользователь с данным id не найден");
-        }
+        UserDto user = requestLookup.get(UserDto.class, id, () -> loadUser(id));
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
 
-        log.info("Получена информация о пользователе с id = " + id);
-        return userMapper.toUserDto(user.get());
+    @Override
+    public String getUserETag(Long id) {
+        User user = repository.findById(id).orElseThrow(() -> new UserNotFound(UserNotFound.MESSAGE));
+        return String.format("\"u%d-%d\"", id, user.getVersion());
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
-        log.info("Удалён пользователь с id = " + id);
+        log.info("Удалён пользователь с id = {}", id);
+        userCache.invalidate(id);
+        requestLookup.evict(UserDto.class, id);
         repository.deleteById(id);
     }
 
+    private UserDto loadUser(Long id) {
+        Optional<UserDto> cachedUser = userCache.get(id);
+        if (cachedUser.isPresent()) {
+            return cachedUser.get();
+        }
+
+        Optional<User> user = repository.findById(id);
+        if (user.isEmpty()) {
+            throw new UserNotFound(UserNotFound.MESSAGE);
+        }
+
+        log.info("Получена информация о пользователе с id = {}", id);
+        UserDto userDto = userMapper.toUserDto(user.get());
+        userCache.put(userDto);
+        return userDto;
+    }
+
     private void validateUser(User user) {
         validateEmail(user.getEmail());
     }
 
+    private void validateBatchUser(User user) {
+        if (user == null) {
+            throw new ValidationError("Пустая запись");
+        }
+
+        if (user.getName() == null || user.getName().isBlank()) {
+            throw new ValidationError("Имя пользователя не может быть пустым");
+        }
+
+        validateUser(user);
+    }
+
     private void validateEmail(String email) {
         if (email == null) {
             throw new ValidationError("Невалидная почта");
@@ -93,7 +185,7 @@ public class UserServiceImpl implements UserService {
         }
 
         String[] parts = email.split("@");
-        if (!parts[1].contains(".")) {
+        if (parts.length != 2 || !parts[1].contains(".")) {
             throw new ValidationError("Невалидная почта");
         }
     }
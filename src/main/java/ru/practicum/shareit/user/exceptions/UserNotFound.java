@@ -1,6 +1,10 @@
 package ru.practicum.shareit.user.exceptions;
 
-public class UserNotFound extends RuntimeException {
+import ru.practicum.shareit.error.baseExceptions.DomainException;
+
+public class UserNotFound extends DomainException {
+    public static final String MESSAGE = "Пользователь с данным id не найден";
+
     public UserNotFound(String message) {
         super(message);
     }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a single row of a bulk request: the created value or the reason the row was rejected.
+ * The index is the position of the row in the request body.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchResult<T> {
+    private final int index;
+    private final boolean created;
+    private final T value;
+    private final String error;
+
+    public static <T> BatchResult<T> created(int index, T value) {
+        return new BatchResult<>(index, true, value, null);
+    }
+
+    public static <T> BatchResult<T> rejected(int index, String error) {
+        return new BatchResult<>(index, false, null, error);
+    }
+}
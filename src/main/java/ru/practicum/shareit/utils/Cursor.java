@@ -0,0 +1,63 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.error.baseExceptions.ValidationError;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class Cursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public static Cursor of(Long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDateTime timestamp, Long id) {
+        return new Cursor(timestamp, id);
+    }
+
+    public String encode() {
+        String value = (timestamp == null ? "" : timestamp.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationError("Некорректный курсор: " + value);
+            }
+
+            String timestamp = decoded.substring(0, separator);
+            return new Cursor(
+                    timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                    Long.parseLong(decoded.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationError("Некорректный курсор: " + value);
+        }
+    }
+
+    public static Cursor decodeWithTimestamp(String value) {
+        Cursor cursor = decode(value);
+        if (cursor != null && cursor.getTimestamp() == null) {
+            throw new ValidationError("Некорректный курсор: " + value);
+        }
+
+        return cursor;
+    }
+}
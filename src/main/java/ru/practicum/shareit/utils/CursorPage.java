@@ -0,0 +1,36 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<List<E>, List<T>> mapper, Function<E, Cursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(mapper.apply(rows), null);
+        }
+
+        List<E> page = rows.subList(0, limit);
+        return new CursorPage<>(mapper.apply(page), cursorOf.apply(page.get(limit - 1)).encode());
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+
+        return response.body(items);
+    }
+}
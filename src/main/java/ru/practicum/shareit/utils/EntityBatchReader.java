@@ -0,0 +1,61 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads a database result stream in fixed-size batches for the unbounded listings.
+ * Every batch is handed to the consumer and then detached from the persistence context,
+ * so only one batch of entities is kept in memory however large the result is.
+ */
+@Component
+public class EntityBatchReader {
+    public static final int BATCH_SIZE = 100;
+    public static final String FETCH_SIZE = "" + BATCH_SIZE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> void read(Stream<T> rows, long offset, Consumer<List<T>> consumer) {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            long skipped = 0;
+            List<T> batch = new ArrayList<>(BATCH_SIZE);
+
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                if (skipped < offset) {
+                    skipped++;
+                    if (skipped % BATCH_SIZE == 0) {
+                        detach();
+                    }
+
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    consumer.accept(batch);
+                    detach();
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+    }
+
+    private void detach() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
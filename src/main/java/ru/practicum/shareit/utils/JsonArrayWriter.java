@@ -0,0 +1,52 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes the elements of an unbounded listing to the response as a JSON array while they are produced.
+ * Nothing is written before the first element, so errors raised up to that point are still handled by ErrorHandler.
+ */
+public class JsonArrayWriter<T> implements Consumer<T> {
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+
+    public JsonArrayWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+    }
+
+    @Override
+    public void accept(T element) {
+        try {
+            start();
+            generator.writeObject(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void start() throws IOException {
+        if (generator != null) {
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        generator = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generator.writeStartArray();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes an export to the response as newline-delimited JSON, one object per line, optionally gzip-compressed.
+ * Like {@link JsonArrayWriter} it touches the response only when the first line is written.
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private final boolean gzip;
+    private JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response, boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed with a non-zero q-value, or not listed and
+     * covered by a non-zero {@code *}. So {@code gzip;q=0} refuses it even next to {@code *}.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzip = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = quality(parts);
+
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+
+        if (gzip != null) {
+            return gzip > 0;
+        }
+
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    @Override
+    public void accept(T element) {
+        try {
+            start();
+            generator.writeObject(element);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        start();
+        generator.close();
+    }
+
+    private void start() throws IOException {
+        if (generator != null) {
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out);
+        }
+
+        generator = objectMapper.createGenerator(out, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+    }
+}
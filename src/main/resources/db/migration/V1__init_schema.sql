@@ -47,4 +47,4 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_for_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_for_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,15 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_id ON bookings (status, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
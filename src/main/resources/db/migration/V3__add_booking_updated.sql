@@ -0,0 +1,5 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS updated TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_updated ON bookings (booker_id, updated, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_updated ON bookings (item_id, updated, id);
@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    next_end TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_start);
+
+INSERT INTO item_booking_summary (item_id, last_booking_id, last_booker_id, last_start, last_end,
+                                  next_booking_id, next_booker_id, next_start, next_end)
+SELECT i.id, l.id, l.booker_id, l.start_date, l.end_date, n.id, n.booker_id, n.start_date, n.end_date
+FROM items i
+LEFT JOIN bookings l ON l.id = (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date < CURRENT_TIMESTAMP
+    ORDER BY b.start_date DESC, b.id DESC LIMIT 1)
+LEFT JOIN bookings n ON n.id = (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > CURRENT_TIMESTAMP
+    ORDER BY b.start_date, b.id DESC LIMIT 1)
+WHERE l.id IS NOT NULL OR n.id IS NOT NULL;
@@ -0,0 +1,147 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.error.ErrorHandler;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+/**
+ * Users and items are versioned, so of two concurrent PATCHes of the same row one may lose with a 409.
+ * Every accepted update bumps the version exactly once.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ConcurrentUpdateTest {
+    private static final int THREADS = 8;
+
+    private final MockMvc mvc;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserCache userCache;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        itemSearchIndex.rebuild();
+        userCache.clear();
+    }
+
+    @Test
+    void shouldAcceptOrRejectConcurrentUserUpdatesWithConflict() throws Exception {
+        UserDto user = createUser("user");
+
+        List<MockHttpServletResponse> responses = runConcurrently(i -> patch("/users/{id}", user.getId())
+                .content("{\"name\": \"name" + i + "\"}")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        assertResponses(responses);
+        assertEquals(accepted(responses), jdbcTemplate.queryForObject(
+                "SELECT version FROM users WHERE id = ?", Long.class, user.getId()));
+    }
+
+    @Test
+    void shouldAcceptOrRejectConcurrentItemUpdatesWithConflict() throws Exception {
+        UserDto owner = createUser("owner");
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        List<MockHttpServletResponse> responses = runConcurrently(i -> patch("/items/{id}", item.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .content("{\"name\": \"Дрель " + i + "\"}")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        assertResponses(responses);
+        assertEquals(accepted(responses), jdbcTemplate.queryForObject(
+                "SELECT version FROM items WHERE id = ?", Long.class, item.getId()));
+    }
+
+    private void assertResponses(List<MockHttpServletResponse> responses) throws Exception {
+        assertTrue(accepted(responses) > 0);
+
+        for (MockHttpServletResponse response : responses) {
+            if (response.getStatus() != HttpStatus.OK.value()) {
+                assertEquals(HttpStatus.CONFLICT.value(), response.getStatus());
+                assertTrue(response.getContentAsString(StandardCharsets.UTF_8).contains(ErrorHandler.CONFLICT_MESSAGE));
+            }
+        }
+    }
+
+    private long accepted(List<MockHttpServletResponse> responses) {
+        return responses.stream().filter(response -> response.getStatus() == HttpStatus.OK.value()).count();
+    }
+
+    private List<MockHttpServletResponse> runConcurrently(IntFunction<MockHttpServletRequestBuilder> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        try {
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                MockHttpServletRequestBuilder request = requests.apply(i);
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    return mvc.perform(request).andReturn().getResponse();
+                }));
+            }
+
+            startSignal.countDown();
+
+            List<MockHttpServletResponse> responses = new ArrayList<>();
+            for (Future<MockHttpServletResponse> future : futures) {
+                responses.add(future.get(30, TimeUnit.SECONDS));
+            }
+
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UserDto createUser(String name) {
+        UserDto user = userService.createUser(new User(null, name, name + "-" + System.nanoTime() + "@shareit.ru"));
+        userIds.add(user.getId());
+        return user;
+    }
+}
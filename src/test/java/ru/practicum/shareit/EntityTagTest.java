@@ -0,0 +1,156 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.QueryCountAssertions.assertStatementCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityTagTest {
+    private final MockMvc mvc;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserCache userCache;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM requests WHERE requestor_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        itemSearchIndex.rebuild();
+        userCache.clear();
+    }
+
+    @Test
+    void shouldAnswerUnchangedItemWithNotModifiedAfterSingleVersionQuery() throws Exception {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        String bookerTag = eTag(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", booker.getId()));
+        String ownerTag = eTag(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", owner.getId()));
+        assertNotEquals(bookerTag, ownerTag);
+
+        assertStatementCount(1, () -> mvc.perform(get("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, bookerTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string("")));
+
+        updateItem(owner, item, "Дрель ударная");
+        updateItem(owner, item, "Дрель аккумуляторная");
+
+        mvc.perform(get("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, bookerTag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void shouldChangeUserTagOnUpdate() throws Exception {
+        UserDto user = createUser("user");
+
+        String tag = eTag(get("/users/{id}", user.getId()));
+        mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified());
+
+        for (String name : List.of("renamed", "renamed again")) {
+            mvc.perform(patch("/users/{id}", user.getId())
+                            .content("{\"name\": \"" + name + "\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+
+        mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldChangeRequestTagWhenOfferedItemChanges() throws Exception {
+        UserDto requestor = createUser("requestor");
+        UserDto owner = createUser("owner");
+        ItemRequestDto request = itemRequestService.create(
+                new ItemRequestDto(null, "Нужна дрель", null, null, null), requestor.getId());
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, request.getId()));
+
+        String tag = eTag(get("/requests/{id}", request.getId()).header("X-Sharer-User-Id", requestor.getId()));
+        mvc.perform(get("/requests/{id}", request.getId())
+                        .header("X-Sharer-User-Id", requestor.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified());
+
+        updateItem(owner, item, "Дрель ударная");
+
+        mvc.perform(get("/requests/{id}", request.getId())
+                        .header("X-Sharer-User-Id", requestor.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+    }
+
+    private String eTag(MockHttpServletRequestBuilder request) throws Exception {
+        String tag = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(tag);
+        return tag;
+    }
+
+    private void updateItem(UserDto owner, ItemDto item, String name) throws Exception {
+        mvc.perform(patch("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .content("{\"name\": \"" + name + "\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    private UserDto createUser(String name) {
+        UserDto user = userService.createUser(new User(null, name, name + "-" + System.nanoTime() + "@shareit.ru"));
+        userIds.add(user.getId());
+        return user;
+    }
+}
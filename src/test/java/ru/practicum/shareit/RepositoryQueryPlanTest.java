@@ -0,0 +1,179 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingQuery;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN for the statements generated by the repository queries on the hot paths and checks that
+ * none of them falls back to a full table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.RepositoryQueryPlanTest$SqlCapture")
+public class RepositoryQueryPlanTest {
+    private static final List<String> INDEXES = List.of(
+            "IDX_BOOKINGS_BOOKER_START",
+            "IDX_BOOKINGS_ITEM_STATUS_START",
+            "IDX_BOOKINGS_STATUS_ID",
+            "IDX_BOOKINGS_BOOKER_UPDATED",
+            "IDX_BOOKINGS_ITEM_UPDATED",
+            "IDX_ITEMS_OWNER",
+            "IDX_ITEMS_REQUEST",
+            "IDX_COMMENTS_ITEM_CREATED",
+            "IDX_REQUESTS_REQUESTOR_CREATED",
+            "IDX_REQUESTS_CREATED",
+            "IDX_ITEM_BOOKING_SUMMARY_NEXT_START"
+    );
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void clearStatements() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldCreateIndexesByMigrations() {
+        List<String> indexes = em.getEntityManager().createNativeQuery(
+                "select index_name from information_schema.indexes where index_name like 'IDX_%'").getResultList();
+
+        assertEquals(Set.copyOf(INDEXES), Set.copyOf(indexes));
+    }
+
+    @Test
+    void bookingQueriesShouldUseIndexes() {
+        bookingRepository.findAll(BookingQuery.byBooker(1L, BookingState.ALL, now).page(0, 10));
+        bookingRepository.findAll(BookingQuery.byBooker(1L, BookingState.CURRENT, now).page(0, 10));
+        bookingRepository.findAll(BookingQuery.byOwner(1L, BookingState.WAITING, now).page(0, 10));
+        bookingRepository.findAll(BookingQuery.byOwner(1L, BookingState.FUTURE, now).page(0, 10));
+        bookingRepository.findViews(BookingQuery.byBooker(1L, BookingState.PAST, now).page(0, 10));
+        bookingRepository.findViews(BookingQuery.byOwner(1L, BookingState.ALL, now).page(0, 10));
+        bookingRepository.findLastBookingsByItemIds(List.of(1L, 2L), now, BookingStatus.APPROVED);
+        bookingRepository.findNextBookingsByItemIds(List.of(1L, 2L), now, BookingStatus.APPROVED);
+        bookingRepository.findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(1L, 1L, now, BookingStatus.APPROVED);
+        bookingRepository.findIntervalsAfter(BookingIntervalIndex.BLOCKING_STATUSES, now, 0L, PageRequest.of(0, 100));
+        consume(bookingRepository.exportByBookerId(1L, now.minusDays(1), now));
+        consume(bookingRepository.exportByOwnerId(1L, now.minusDays(1), now));
+        consume(bookingRepository.streamViews(BookingQuery.byBooker(1L, BookingState.ALL, now)));
+
+        assertIndexesUsed();
+    }
+
+    @Test
+    void itemQueriesShouldUseIndexes() {
+        itemRepository.findByOwnerId(1L, PageRequest.of(0, 10));
+        itemRepository.findByOwnerIdAndIdGreaterThan(1L, 0L, PageRequest.of(0, 10, Sort.by("id")));
+        itemRepository.findAllByRequestId(1L, Sort.by("id"));
+        itemRepository.findAllByRequestIdIn(List.of(1L, 2L), Sort.by("id"));
+        itemRepository.findAllByIdIn(List.of(1L, 2L), Sort.by("id"));
+        itemRepository.findOwnershipById(1L);
+        consume(itemRepository.streamByOwnerId(1L));
+        commentRepository.findAllByItem_id(1L, Sort.by(Sort.Direction.DESC, "created"));
+        commentRepository.findAllByItem_IdIn(List.of(1L, 2L), Sort.by(Sort.Direction.DESC, "created"));
+        userRepository.findById(1L);
+        itemBookingSummaryRepository.findItemIdsStartedBefore(now);
+        itemBookingSummaryRepository.lockItems(List.of(1L, 2L));
+
+        assertIndexesUsed();
+    }
+
+    @Test
+    void requestQueriesShouldUseIndexes() {
+        itemRequestRepository.findAllByRequestorId(1L, Sort.by(Sort.Direction.DESC, "created"));
+        itemRequestRepository.findAllByRequestorIdNot(1L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created")));
+        itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(1L, PageRequest.of(0, 10));
+        itemRequestRepository.findAllByRequestorIdNotCreatedBefore(1L, now, 10L, PageRequest.of(0, 10));
+
+        assertIndexesUsed();
+    }
+
+    private void consume(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+
+    private void assertIndexesUsed() {
+        List<String> statements = new ArrayList<>(SqlCapture.STATEMENTS);
+        assertFalse(statements.isEmpty());
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), () -> "Запрос выполняется полным сканированием таблицы:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return em.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.error.baseExceptions.ValidationError;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final UserCache userCache;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM bookings WHERE booker_id = ? OR item_id IN (SELECT id FROM items WHERE owner_id = ?)", userId, userId);
+            jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        itemSearchIndex.rebuild();
+        bookingIntervalIndex.rebuild();
+        userCache.clear();
+    }
+
+    @Test
+    void shouldAcceptOnlyOneDecisionForBooking() throws Exception {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = createItem(owner, "Дрель");
+
+        BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                item.getId(),
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)
+        ));
+
+        List<Boolean> results = runConcurrently(i -> () -> {
+            bookingService.update(owner.getId(), booking.getId(), i % 2 == 0);
+            return true;
+        });
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+
+        BookingStatus status = bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+        assertTrue(status == BookingStatus.APPROVED || status == BookingStatus.REJECTED);
+    }
+
+    @Test
+    void shouldApproveBookingsOfOneItemAtTheSameTime() throws Exception {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = createItem(owner, "Дрель");
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookings.add(bookingService.create(booker.getId(), new BookingInputDto(
+                    item.getId(),
+                    start.plusDays(i * 2L),
+                    start.plusDays(i * 2L + 1)
+            )));
+        }
+
+        List<Boolean> results = runConcurrently(i -> () -> {
+            bookingService.update(owner.getId(), bookings.get(i).getId(), true);
+            return true;
+        });
+
+        assertEquals(THREADS, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(bookings.get(0).getId(), itemBookingSummaryRepository.findById(item.getId())
+                .orElseThrow()
+                .getNextBookingId());
+    }
+
+    @Test
+    void shouldCreateOnlyOneOfOverlappingBookings() throws Exception {
+        UserDto owner = createUser("owner");
+        ItemDto item = createItem(owner, "Дрель");
+
+        List<UserDto> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(createUser("booker" + i));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Boolean> results = runConcurrently(i -> () -> {
+            bookingService.create(bookers.get(i).getId(), new BookingInputDto(
+                    item.getId(),
+                    start.plusHours(i),
+                    start.plusDays(1).plusHours(i)
+            ));
+            return true;
+        });
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    @Test
+    void shouldCreateBookingsOfDifferentItemsInParallel() throws Exception {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(createItem(owner, "Вещь" + i));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Boolean> results = runConcurrently(i -> () -> {
+            bookingService.create(booker.getId(), new BookingInputDto(items.get(i).getId(), start, start.plusDays(1)));
+            return true;
+        });
+
+        assertEquals(THREADS, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    private List<Boolean> runConcurrently(TaskFactory factory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Callable<Boolean> task = factory.create(i);
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        return task.call();
+                    } catch (ValidationError e) {
+                        return false;
+                    }
+                }));
+            }
+
+            startSignal.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UserDto createUser(String name) {
+        UserDto user = userService.createUser(new User(null, name, name + "-" + System.nanoTime() + "@shareit.ru"));
+        userIds.add(user.getId());
+        return user;
+    }
+
+    private ItemDto createItem(UserDto owner, String name) {
+        return itemService.createItem(owner.getId(), new Item(null, name, "Описание", true, null, null));
+    }
+
+    private interface TaskFactory {
+        Callable<Boolean> create(int index);
+    }
+}
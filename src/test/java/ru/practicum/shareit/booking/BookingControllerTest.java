@@ -5,26 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(BookingExportWindow.class)
 public class BookingControllerTest {
     @Autowired
     ObjectMapper mapper;
@@ -105,11 +116,10 @@ public class BookingControllerTest {
 
     @Test
     void getBookings() throws Exception {
-        when(bookingService.getBookings(
-                any(Long.class),
-                any(String.class),
-                any(Integer.class),
-                nullable(Integer.class))).thenReturn(List.of(bookingDto));
+        doAnswer(invocation -> {
+            invocation.<Consumer<BookingDto>>getArgument(3).accept(bookingDto);
+            return null;
+        }).when(bookingService).streamBookings(any(Long.class), any(String.class), any(Integer.class), any());
 
         mvc.perform(get("/bookings")
                 .characterEncoding(StandardCharsets.UTF_8)
@@ -187,4 +197,71 @@ public class BookingControllerTest {
                         is(bookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().toString()), BookingStatus.class));
     }
+
+    @Test
+    void exportBookings() throws Exception {
+        stubExport();
+
+        String body = mvc.perform(get("/bookings/export?role=owner&since=2024-01-01T00:00:00")
+                .header("X-Sharer-User-Id", 1)
+        ).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().exists(BookingController.EXPORT_WATERMARK_HEADER))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertExportLines(body);
+    }
+
+    @Test
+    void exportBookingsGzip() throws Exception {
+        stubExport();
+
+        byte[] body = mvc.perform(get("/bookings/export")
+                .header("X-Sharer-User-Id", 1)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+        ).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertExportLines(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void stubExport() {
+        doAnswer(invocation -> {
+            Consumer<BookingExportDto> consumer = invocation.getArgument(4);
+            for (long id = 1; id <= 2; id++) {
+                consumer.accept(new BookingExportDto(
+                        id, 1L, "Тестовый предмет", 1L, 2L,
+                        bookingDto.getStart(), bookingDto.getEnd(), BookingStatus.APPROVED, bookingDto.getStart()
+                ));
+            }
+            return null;
+        }).when(bookingService).exportBookings(any(Long.class), any(String.class), nullable(LocalDateTime.class),
+                any(LocalDateTime.class), any());
+    }
+
+    private void assertExportLines(String body) throws IOException {
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals('\n', body.charAt(body.length() - 1));
+        assertEquals(1L, mapper.readValue(lines[0], BookingExportDto.class).getId());
+        assertEquals("Тестовый предмет", mapper.readValue(lines[1], BookingExportDto.class).getItemName());
+    }
+
+    @Test
+    void getBookingsByCursor() throws Exception {
+        when(bookingService.getBookingsAfter(any(Long.class), any(String.class), nullable(String.class), any(Integer.class)))
+                .thenReturn(new CursorPage<>(List.of(bookingDto), "next"));
+
+        mvc.perform(get("/bookings?limit=1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1)
+        ).andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class));
+    }
 }
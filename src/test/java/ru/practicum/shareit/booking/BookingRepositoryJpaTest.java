@@ -6,18 +6,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class BookingRepositoryJpaTest {
     @Autowired
     private TestEntityManager em;
@@ -29,7 +38,7 @@ public class BookingRepositoryJpaTest {
     private User booker;
     private Item item;
 
-    private PageRequest page = PageRequest.of(0, 10);
+    private final LocalDateTime now = LocalDateTime.now();
 
     @BeforeEach
     void saveData() {
@@ -54,117 +63,170 @@ public class BookingRepositoryJpaTest {
     }
 
     @Test
-    void test_findByBookerId() {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setStart(LocalDateTime.now().plusDays(10));
-        booking.setEnd(LocalDateTime.now().plusDays(20));
-        em.persist(booking);
-        em.flush();
+    void test_findByBookerAll() {
+        saveBooking(BookingStatus.WAITING, now.plusDays(10), now.plusDays(20));
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerId(booker.getId(), page);
-        assertEquals(1, resultBookings.toList().size());
+        List<Booking> resultBookings = bookingRepository.findAll(BookingQuery.byBooker(booker.getId(), BookingState.ALL, now));
+        assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void test_findByBookerIdAndStartIsBeforeAndEndIsAfter() {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setStart(LocalDateTime.now().minusDays(3));
-        booking.setEnd(LocalDateTime.now().plusDays(5));
-        em.persist(booking);
-        em.flush();
+    void test_findByBookerCurrent() {
+        saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.plusDays(5));
+        saveBooking(BookingStatus.APPROVED, now.plusDays(6), now.plusDays(7));
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                booker.getId(),
-                LocalDateTime.now(),
-                LocalDateTime.now(),
-                page
-        );
-        assertEquals(1, resultBookings.toList().size());
+        List<Booking> resultBookings = bookingRepository.findAll(BookingQuery.byBooker(booker.getId(), BookingState.CURRENT, now));
+        assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void test_findByBookerIdAndEndIsBefore() {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setStart(LocalDateTime.now().minusDays(7));
-        booking.setEnd(LocalDateTime.now().minusDays(4));
-        em.persist(booking);
-        em.flush();
+    void test_findByBookerPast() {
+        saveBooking(BookingStatus.APPROVED, now.minusDays(7), now.minusDays(4));
+        saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.plusDays(5));
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndEndIsBefore(
-                booker.getId(),
-                LocalDateTime.now(),
-                page
-        );
-        assertEquals(1, resultBookings.toList().size());
+        List<Booking> resultBookings = bookingRepository.findAll(BookingQuery.byBooker(booker.getId(), BookingState.PAST, now));
+        assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void test_findByBookerIdAndStartIsAfter() {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setStart(LocalDateTime.now().plusDays(3));
-        booking.setEnd(LocalDateTime.now().plusDays(5));
-        em.persist(booking);
-        em.flush();
+    void test_findByBookerFuture() {
+        saveBooking(BookingStatus.APPROVED, now.plusDays(3), now.plusDays(5));
+        saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.plusDays(5));
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndStartIsAfter(
-                booker.getId(),
-                LocalDateTime.now(),
-                page
-        );
-        assertEquals(1, resultBookings.toList().size());
+        List<Booking> resultBookings = bookingRepository.findAll(BookingQuery.byBooker(booker.getId(), BookingState.FUTURE, now));
+        assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void test_findByBookerIdAndStatus() {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.REJECTED);
-        booking.setStart(LocalDateTime.now().plusDays(3));
-        booking.setEnd(LocalDateTime.now().plusDays(5));
-        em.persist(booking);
-        em.flush();
+    void test_findByBookerRejected() {
+        saveBooking(BookingStatus.REJECTED, now.plusDays(3), now.plusDays(5));
+        saveBooking(BookingStatus.WAITING, now.plusDays(6), now.plusDays(7));
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndStatus(
-                booker.getId(),
-                BookingStatus.REJECTED,
-                page
+        List<Booking> resultBookings = bookingRepository.findAll(BookingQuery.byBooker(booker.getId(), BookingState.REJECTED, now));
+        assertEquals(1, resultBookings.size());
+        assertEquals(BookingStatus.REJECTED, resultBookings.get(0).getStatus());
+    }
+
+    @Test
+    void test_findByOwner() {
+        saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.plusDays(5));
+
+        assertEquals(1, bookingRepository.findAll(BookingQuery.byOwner(owner.getId(), BookingState.ALL, now)).size());
+        assertEquals(0, bookingRepository.findAll(BookingQuery.byOwner(booker.getId(), BookingState.ALL, now)).size());
+    }
+
+    @Test
+    void test_findWithFiltersAndPage() {
+        Booking first = saveBooking(BookingStatus.APPROVED, now.plusDays(1), now.plusDays(2));
+        Booking second = saveBooking(BookingStatus.WAITING, now.plusDays(3), now.plusDays(4));
+        Booking third = saveBooking(BookingStatus.REJECTED, now.plusDays(5), now.plusDays(6));
+
+        assertEquals(
+                List.of(third.getId(), second.getId(), first.getId()),
+                ids(BookingQuery.byOwner(owner.getId(), BookingState.ALL, now).forItem(item.getId()))
+        );
+        assertEquals(
+                List.of(second.getId()),
+                ids(BookingQuery.byOwner(owner.getId(), BookingState.ALL, now).page(1, 1))
         );
-        assertEquals(1, resultBookings.toList().size());
+        assertEquals(
+                List.of(second.getId(), first.getId()),
+                ids(BookingQuery.byBooker(booker.getId(), BookingState.ALL, now).overlapping(now, now.plusDays(3).plusHours(1)))
+        );
+        assertEquals(
+                List.of(second.getId(), first.getId()),
+                ids(BookingQuery.byBooker(booker.getId(), BookingState.FUTURE, now)
+                        .withStatuses(Set.of(BookingStatus.WAITING, BookingStatus.APPROVED)))
+        );
+        assertEquals(
+                List.of(),
+                ids(BookingQuery.byBooker(booker.getId(), BookingState.ALL, now).forItem(item.getId() + 1))
+        );
+    }
+
+    @Test
+    void test_findRunsSingleStatement() {
+        saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.plusDays(5));
+        saveBooking(BookingStatus.WAITING, now.plusDays(6), now.plusDays(7));
+        em.clear();
+
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Booking> resultBookings = bookingRepository.findAll(BookingQuery.byOwner(owner.getId(), BookingState.ALL, now));
+        resultBookings.forEach(booking -> {
+            booking.getItem().getOwner().getName();
+            booking.getBooker().getName();
+        });
+
+        assertEquals(2, resultBookings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void test_findLastAndNextBookingsLeaveAssociationsUnloaded() {
+        Booking last = saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.minusDays(2));
+        Booking next = saveBooking(BookingStatus.APPROVED, now.plusDays(2), now.plusDays(3));
+        em.clear();
+
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), now, BookingStatus.APPROVED);
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), now, BookingStatus.APPROVED);
+
+        assertEquals(last.getId(), lastBookings.get(0).getId());
+        assertEquals(booker.getId(), lastBookings.get(0).getBooker().getId());
+        assertEquals(next.getId(), nextBookings.get(0).getId());
+        assertEquals(item.getId(), nextBookings.get(0).getItem().getId());
+        assertFalse(Hibernate.isInitialized(lastBookings.get(0).getItem()));
+        assertFalse(Hibernate.isInitialized(nextBookings.get(0).getBooker()));
+        assertEquals(2, statistics.getPrepareStatementCount());
     }
 
     @Test
-    void test_findByItem_Owner_Id() {
+    void test_findViewsMatchEntitiesWithoutLoadingThem() {
+        saveBooking(BookingStatus.APPROVED, now.minusDays(3), now.plusDays(5));
+        saveBooking(BookingStatus.WAITING, now.plusDays(6), now.plusDays(7));
+        BookingQuery query = BookingQuery.byOwner(owner.getId(), BookingState.ALL, now);
+        List<Long> expectedIds = ids(query);
+        em.clear();
+
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingView> views = bookingRepository.findViews(query);
+
+        assertEquals(expectedIds, views.stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertEquals(item.getName(), views.get(0).getItemName());
+        assertEquals(owner.getEmail(), views.get(0).getOwnerEmail());
+        assertEquals(booker.getName(), views.get(1).getBookerName());
+        assertEquals(BookingStatus.WAITING, views.get(0).getStatus());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(em.getEntityManager().unwrap(Session.class).getStatistics().getEntityKeys().isEmpty());
+    }
+
+    @AfterEach
+    void deleteData() {
+        bookingRepository.deleteAll();
+    }
+
+    private Booking saveBooking(BookingStatus status, LocalDateTime start, LocalDateTime end) {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setStart(LocalDateTime.now().minusDays(3));
-        booking.setEnd(LocalDateTime.now().plusDays(5));
+        booking.setStatus(status);
+        booking.setStart(start);
+        booking.setEnd(end);
         em.persist(booking);
         em.flush();
-
-        Page<Booking> resultBookings = bookingRepository.findByItem_Owner_Id(
-                owner.getId(),
-                page
-        );
-        assertEquals(1, resultBookings.toList().size());
+        return booking;
     }
 
-    @AfterEach
-    void deleteData() {
-        bookingRepository.deleteAll();
+    private List<Long> ids(BookingQuery query) {
+        return bookingRepository.findAll(query).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
     }
 }
@@ -34,7 +34,7 @@ public class BookingServiceImplTest {
 
     @Test
     void shouldThrowExceptionBookingNotFound() {
-        BookingService bookingService = new BookingServiceImpl(validationService, null, mockBookingRepository);
+        BookingService bookingService = new BookingServiceImpl(validationService, null, mockBookingRepository, null, null, null);
 
         when(validationService.getUserById(any(Long.class)))
                 .thenReturn(user);
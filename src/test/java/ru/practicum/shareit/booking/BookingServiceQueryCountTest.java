@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingServiceQueryCountTest {
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+
+    @Test
+    void shouldCreateBookingWithFixedNumberOfQueries() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+
+        ItemDto commentedItem = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        for (int i = 1; i <= 5; i++) {
+            BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                    commentedItem.getId(),
+                    LocalDateTime.now().minusDays(i * 2L + 1),
+                    LocalDateTime.now().minusDays(i * 2L)
+            ));
+            bookingService.update(owner.getId(), booking.getId(), true);
+            itemService.createComment(new CommentDto(null, "Комментарий " + i, null, null, null), commentedItem.getId(), booker.getId());
+        }
+
+        ItemDto newItem = itemService.createItem(owner.getId(), new Item(null, "Отвертка", "Аккумуляторная отвертка", true, null, null));
+        userService.getUserById(booker.getId());
+
+        long commentedItemQueries = countCreateQueries(booker, commentedItem);
+        long newItemQueries = countCreateQueries(booker, newItem);
+
+        assertEquals(commentedItemQueries, newItemQueries);
+        assertTrue(commentedItemQueries <= 3, "Создание бронирования выполнило запросов: " + commentedItemQueries);
+    }
+
+    @Test
+    void shouldReturnFullItemInCreatedBooking() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                item.getId(),
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)
+        ));
+
+        assertEquals("Дрель", booking.getItem().getName());
+        assertEquals(owner.getId(), booking.getItem().getOwner().getId());
+        assertEquals(booker, booking.getBooker());
+    }
+
+    private long countCreateQueries(UserDto booker, ItemDto item) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                item.getId(),
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)
+        ));
+        assertEquals(item.getName(), booking.getItem().getName());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -6,8 +6,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.exceptions.BookingNotFound;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.error.baseExceptions.ValidationError;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -15,12 +17,19 @@ import ru.practicum.shareit.service.MapperService;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -148,8 +157,8 @@ public class BookingServiceTest {
 
         BookingInputDto bookingInputDto2 = new BookingInputDto(
                 itemDto.getId(),
-                LocalDateTime.of(2023, 2, 1, 0, 0),
-                LocalDateTime.of(2023, 2, 2, 0, 0)
+                LocalDateTime.of(2023, 2, 3, 0, 0),
+                LocalDateTime.of(2023, 2, 4, 0, 0)
         );
 
         BookingDto bookingDto1 = bookingService.create(userDto2.getId(), bookingInputDto2);
@@ -175,8 +184,8 @@ public class BookingServiceTest {
 
         BookingInputDto bookingInputDto2 = new BookingInputDto(
                 itemDto.getId(),
-                LocalDateTime.of(2023, 2, 1, 0, 0),
-                LocalDateTime.of(2023, 2, 2, 0, 0)
+                LocalDateTime.of(2023, 2, 3, 0, 0),
+                LocalDateTime.of(2023, 2, 4, 0, 0)
         );
 
         BookingDto bookingDto1 = bookingService.create(userDto2.getId(), bookingInputDto2);
@@ -202,8 +211,8 @@ public class BookingServiceTest {
 
         BookingInputDto bookingInputDto2 = new BookingInputDto(
                 itemDto.getId(),
-                LocalDateTime.of(2023, 2, 1, 0, 0),
-                LocalDateTime.of(2023, 2, 2, 0, 0)
+                LocalDateTime.of(2023, 2, 3, 0, 0),
+                LocalDateTime.of(2023, 2, 4, 0, 0)
         );
 
         BookingDto bookingDto1 = bookingService.create(userDto2.getId(), bookingInputDto2);
@@ -238,8 +247,8 @@ public class BookingServiceTest {
 
         BookingInputDto bookingInputDto2 = new BookingInputDto(
                 itemDto.getId(),
-                LocalDateTime.of(2023, 2, 1, 0, 0),
-                LocalDateTime.of(2023, 2, 2, 0, 0)
+                LocalDateTime.of(2023, 2, 3, 0, 0),
+                LocalDateTime.of(2023, 2, 4, 0, 0)
         );
 
         BookingDto bookingDto1 = bookingService.create(userDto2.getId(), bookingInputDto2);
@@ -265,8 +274,8 @@ public class BookingServiceTest {
 
         BookingInputDto bookingInputDto2 = new BookingInputDto(
                 itemDto.getId(),
-                LocalDateTime.of(2023, 2, 1, 0, 0),
-                LocalDateTime.of(2023, 2, 2, 0, 0)
+                LocalDateTime.of(2023, 2, 3, 0, 0),
+                LocalDateTime.of(2023, 2, 4, 0, 0)
         );
 
         BookingDto bookingDto1 = bookingService.create(userDto2.getId(), bookingInputDto2);
@@ -292,8 +301,8 @@ public class BookingServiceTest {
 
         BookingInputDto bookingInputDto2 = new BookingInputDto(
                 itemDto.getId(),
-                LocalDateTime.of(2023, 2, 1, 0, 0),
-                LocalDateTime.of(2023, 2, 2, 0, 0)
+                LocalDateTime.of(2023, 2, 3, 0, 0),
+                LocalDateTime.of(2023, 2, 4, 0, 0)
         );
 
         BookingDto bookingDto1 = bookingService.create(userDto2.getId(), bookingInputDto2);
@@ -311,6 +320,164 @@ public class BookingServiceTest {
         assertEquals(0, bookingDtoList.size());
     }
 
+    @Test
+    void shouldStreamBookingsByBookerAndOwner() {
+        UserDto userDto1 = userService.createUser(user1);
+        UserDto userDto2 = userService.createUser(user2);
+
+        ItemDto itemDto = itemService.createItem(userDto1.getId(), mapperService.toItem(item1));
+
+        for (int i = 1; i <= 3; i++) {
+            bookingService.create(userDto2.getId(), new BookingInputDto(
+                    itemDto.getId(),
+                    LocalDateTime.of(2023, 2, i * 2, 0, 0),
+                    LocalDateTime.of(2023, 2, i * 2 + 1, 0, 0)
+            ));
+        }
+
+        List<BookingDto> streamed = new ArrayList<>();
+        bookingService.streamBookings(userDto2.getId(), "ALL", 1, streamed::add);
+        assertEquals(2, streamed.size());
+        assertEquals(LocalDateTime.of(2023, 2, 4, 0, 0), streamed.get(0).getStart());
+
+        List<BookingDto> streamedByOwner = new ArrayList<>();
+        bookingService.streamOwnerBookings(userDto1.getId(), "WAITING", 0, streamedByOwner::add);
+        assertEquals(3, streamedByOwner.size());
+
+        assertThrows(ValidationError.class, () -> bookingService.streamBookings(userDto2.getId(), "UNKNOWN", 0, streamed::add));
+    }
+
+    @Test
+    void shouldExportBookingsUpdatedSince() {
+        UserDto userDto1 = userService.createUser(user1);
+        UserDto userDto2 = userService.createUser(user2);
+
+        ItemDto itemDto = itemService.createItem(userDto1.getId(), mapperService.toItem(item1));
+
+        BookingDto first = bookingService.create(userDto2.getId(), new BookingInputDto(
+                itemDto.getId(), LocalDateTime.of(2023, 2, 1, 0, 0), LocalDateTime.of(2023, 2, 2, 0, 0)));
+        BookingDto second = bookingService.create(userDto2.getId(), new BookingInputDto(
+                itemDto.getId(), LocalDateTime.of(2023, 2, 3, 0, 0), LocalDateTime.of(2023, 2, 4, 0, 0)));
+
+        LocalDateTime watermark = LocalDateTime.now();
+        List<BookingExportDto> ownerExport = new ArrayList<>();
+        bookingService.exportBookings(userDto1.getId(), "owner", null, watermark, ownerExport::add);
+        assertEquals(List.of(first.getId(), second.getId()), ownerExport.stream().map(BookingExportDto::getId).collect(Collectors.toList()));
+        assertEquals(userDto1.getId(), ownerExport.get(0).getOwnerId());
+        assertEquals(userDto2.getId(), ownerExport.get(0).getBookerId());
+
+        bookingService.update(userDto1.getId(), first.getId(), true);
+
+        List<BookingExportDto> beforeWatermark = new ArrayList<>();
+        bookingService.exportBookings(userDto2.getId(), "BOOKER", null, watermark, beforeWatermark::add);
+        assertEquals(List.of(second.getId()), beforeWatermark.stream().map(BookingExportDto::getId).collect(Collectors.toList()));
+
+        List<BookingExportDto> bookerExport = new ArrayList<>();
+        bookingService.exportBookings(userDto2.getId(), "BOOKER", watermark, LocalDateTime.now(), bookerExport::add);
+        assertEquals(1, bookerExport.size());
+        assertEquals(first.getId(), bookerExport.get(0).getId());
+        assertEquals(BookingStatus.APPROVED, bookerExport.get(0).getStatus());
+
+        List<BookingExportDto> otherExport = new ArrayList<>();
+        bookingService.exportBookings(userDto2.getId(), "owner", null, LocalDateTime.now(), otherExport::add);
+        assertTrue(otherExport.isEmpty());
+
+        ValidationError exp = assertThrows(
+                ValidationError.class,
+                () -> bookingService.exportBookings(userDto1.getId(), "ADMIN", null, LocalDateTime.now(), ownerExport::add)
+        );
+        assertEquals("Unknown role: ADMIN", exp.getMessage());
+    }
+
+    @Test
+    void shouldReturnBookingsByCursor() {
+        UserDto userDto1 = userService.createUser(user1);
+        UserDto userDto2 = userService.createUser(user2);
+
+        ItemDto itemDto = itemService.createItem(userDto1.getId(), mapperService.toItem(item1));
+
+        for (int i = 1; i <= 3; i++) {
+            bookingService.create(userDto2.getId(), new BookingInputDto(
+                    itemDto.getId(),
+                    LocalDateTime.of(2023, 2, i * 2, 0, 0),
+                    LocalDateTime.of(2023, 2, i * 2 + 1, 0, 0)
+            ));
+        }
+
+        CursorPage<BookingDto> firstPage = bookingService.getBookingsAfter(userDto2.getId(), "ALL", null, 2);
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals(LocalDateTime.of(2023, 2, 6, 0, 0), firstPage.getItems().get(0).getStart());
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPage<BookingDto> secondPage = bookingService.getBookingsAfter(userDto2.getId(), "ALL", firstPage.getNextCursor(), 2);
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals(LocalDateTime.of(2023, 2, 2, 0, 0), secondPage.getItems().get(0).getStart());
+        assertNull(secondPage.getNextCursor());
+
+        CursorPage<BookingDto> ownerPage = bookingService.getOwnerBookingsAfter(userDto1.getId(), "PAST", null, 5);
+        assertEquals(3, ownerPage.getItems().size());
+        assertNull(ownerPage.getNextCursor());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCreateOverlappingBooking() {
+        UserDto userDto1 = userService.createUser(user1);
+        UserDto userDto2 = userService.createUser(user2);
+        UserDto userDto3 = userService.createUser(user3);
+
+        ItemDto itemDto = itemService.createItem(userDto1.getId(), mapperService.toItem(item1));
+
+        bookingService.create(userDto2.getId(), new BookingInputDto(
+                itemDto.getId(),
+                LocalDateTime.of(2030, 2, 1, 0, 0),
+                LocalDateTime.of(2030, 2, 5, 0, 0)
+        ));
+
+        ValidationError exception = assertThrows(
+                ValidationError.class,
+                () -> bookingService.create(userDto3.getId(), new BookingInputDto(
+                        itemDto.getId(),
+                        LocalDateTime.of(2030, 2, 4, 0, 0),
+                        LocalDateTime.of(2030, 2, 6, 0, 0)
+                ))
+        );
+
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+
+        BookingDto adjacent = bookingService.create(userDto3.getId(), new BookingInputDto(
+                itemDto.getId(),
+                LocalDateTime.of(2030, 2, 5, 0, 0),
+                LocalDateTime.of(2030, 2, 6, 0, 0)
+        ));
+        assertNotNull(adjacent.getId());
+    }
+
+    @Test
+    void shouldReleasePeriodWhenBookingRejected() {
+        UserDto userDto1 = userService.createUser(user1);
+        UserDto userDto2 = userService.createUser(user2);
+        UserDto userDto3 = userService.createUser(user3);
+
+        ItemDto itemDto = itemService.createItem(userDto1.getId(), mapperService.toItem(item1));
+
+        BookingInputDto bookingInputDto = new BookingInputDto(
+                itemDto.getId(),
+                LocalDateTime.of(2030, 2, 1, 0, 0),
+                LocalDateTime.of(2030, 2, 5, 0, 0)
+        );
+
+        BookingDto bookingDto = bookingService.create(userDto2.getId(), bookingInputDto);
+        assertFalse(itemService.getItemAvailability(
+                itemDto.getId(), userDto3.getId(), bookingInputDto.getStart(), bookingInputDto.getEnd()).getAvailable());
+
+        bookingService.update(userDto1.getId(), bookingDto.getId(), false);
+        assertTrue(itemService.getItemAvailability(
+                itemDto.getId(), userDto3.getId(), bookingInputDto.getStart(), bookingInputDto.getEnd()).getAvailable());
+
+        BookingDto newBookingDto = bookingService.create(userDto3.getId(), bookingInputDto);
+        assertNotNull(newBookingDto.getId());
+    }
+
     @Test
     void shouldThrowExceptionsWithUnknownState() {
         UserDto userDto1 = userService.createUser(user1);
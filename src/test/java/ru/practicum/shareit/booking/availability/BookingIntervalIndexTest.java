@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingIntervalIndexTest {
+    private final Item item = new Item(1L, "Дрель", "Простая дрель", true, null, null);
+    private final BookingIntervalIndex index = new BookingIntervalIndex(null);
+
+    @Test
+    void shouldPruneEndedIntervals() {
+        LocalDateTime now = LocalDateTime.now();
+        index.index(booking(1L, now.plusDays(1), now.plusDays(2)));
+        index.index(booking(2L, now.plusDays(3), now.plusDays(4)));
+        assertEquals(2, index.size());
+
+        index.prune(now.plusDays(2));
+
+        assertEquals(1, index.size());
+        assertTrue(index.isFree(item.getId(), now.plusDays(1), now.plusDays(2)));
+        assertFalse(index.isFree(item.getId(), now.plusDays(3), now.plusDays(4)));
+
+        index.prune(now.plusDays(5));
+
+        assertEquals(0, index.size());
+        assertTrue(index.isFree(item.getId(), now.plusDays(3), now.plusDays(4)));
+    }
+
+    @Test
+    void shouldNotIndexEndedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        index.index(booking(1L, now.minusDays(2), now.minusDays(1)));
+
+        assertEquals(0, index.size());
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+}
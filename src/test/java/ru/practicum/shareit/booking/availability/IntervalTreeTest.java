@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void shouldFindOverlappingIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(interval(1L, 0, 10));
+        tree.insert(interval(2L, 2, 3));
+        tree.insert(interval(3L, 20, 25));
+
+        assertTrue(tree.anyOverlap(at(5), at(6)));
+        assertTrue(tree.anyOverlap(at(2), at(3)));
+        assertFalse(tree.anyOverlap(at(10), at(20)));
+    }
+
+    @Test
+    void shouldRemoveIntervals() {
+        IntervalTree tree = new IntervalTree();
+        BookingInterval interval = interval(1L, 0, 10);
+        tree.insert(interval);
+
+        assertTrue(tree.remove(interval));
+        assertFalse(tree.remove(interval));
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.anyOverlap(at(0), at(10)));
+    }
+
+    @Test
+    void shouldMatchBruteForceSearch() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<BookingInterval> all = new ArrayList<>();
+
+        for (long id = 1; id <= 500; id++) {
+            int start = random.nextInt(1000);
+            BookingInterval interval = interval(id, start, start + 1 + random.nextInt(50));
+            tree.insert(interval);
+            all.add(interval);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            BookingInterval removed = all.remove(random.nextInt(all.size()));
+            assertTrue(tree.remove(removed));
+        }
+
+        assertEquals(all.size(), tree.size());
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(1050);
+            int to = from + 1 + random.nextInt(30);
+
+            boolean expected = all.stream().anyMatch(interval -> interval.overlaps(at(from), at(to)));
+
+            assertEquals(expected, tree.anyOverlap(at(from), at(to)));
+        }
+    }
+
+    private static BookingInterval interval(Long id, int start, int end) {
+        return new BookingInterval(id, 1L, at(start), at(end), BookingStatus.WAITING);
+    }
+
+    private static LocalDateTime at(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
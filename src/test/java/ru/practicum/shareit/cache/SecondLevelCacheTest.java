@@ -0,0 +1,149 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SecondLevelCacheTest {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final UserCache userCache;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM comments WHERE author_id = ? OR item_id IN (SELECT id FROM items WHERE owner_id = ?)", userId, userId);
+            jdbcTemplate.update("DELETE FROM bookings WHERE booker_id = ? OR item_id IN (SELECT id FROM items WHERE owner_id = ?)", userId, userId);
+            jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        itemSearchIndex.rebuild();
+        bookingIntervalIndex.rebuild();
+        userCache.clear();
+    }
+
+    @Test
+    void shouldServeUpdatedItemFromCacheAfterUpdateItem() {
+        UserDto owner = createUser("owner");
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        itemService.getItemById(item.getId(), owner.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+        itemService.updateItem(item.getId(), owner.getId(), new Item(null, "Перфоратор", null, null, null, null));
+
+        long hits = statistics().getDomainDataRegionStatistics("items").getHitCount();
+        ItemDto cached = itemService.getItemById(item.getId(), owner.getId());
+
+        assertEquals("Перфоратор", cached.getName());
+        assertEquals("Простая дрель", cached.getDescription());
+        assertTrue(statistics().getDomainDataRegionStatistics("items").getHitCount() > hits);
+    }
+
+    @Test
+    void shouldServeUpdatedUserFromCacheAfterUpdateUser() {
+        UserDto user = createUser("user");
+        userRepository.findById(user.getId());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+
+        userService.updateUser(user.getId(), new User(null, "renamed", null));
+
+        long hits = statistics().getDomainDataRegionStatistics("users").getHitCount();
+        User cached = userRepository.findById(user.getId()).orElseThrow();
+
+        assertEquals("renamed", cached.getName());
+        assertEquals(user.getEmail(), cached.getEmail());
+        assertTrue(statistics().getDomainDataRegionStatistics("users").getHitCount() > hits);
+        assertEquals("renamed", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void shouldInvalidateCachedCommentsWhenCommentIsAdded() {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                item.getId(), LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1)));
+        bookingService.update(owner.getId(), booking.getId(), true);
+        itemService.createComment(new CommentDto(null, "Первый", null, null, null), item.getId(), booker.getId());
+
+        assertEquals(1, itemService.getItemById(item.getId(), owner.getId()).getComments().size());
+        long hits = statistics().getQueryRegionStatistics(CommentRepository.CACHE_REGION).getHitCount();
+        assertEquals(1, itemService.getItemById(item.getId(), owner.getId()).getComments().size());
+        assertTrue(statistics().getQueryRegionStatistics(CommentRepository.CACHE_REGION).getHitCount() > hits);
+
+        itemService.createComment(new CommentDto(null, "Второй", null, null, null), item.getId(), booker.getId());
+
+        assertEquals(2, itemService.getItemById(item.getId(), owner.getId()).getComments().size());
+    }
+
+    @Test
+    void shouldKeepCachedUsersAndItemsWhenBookingIsApproved() {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                item.getId(), LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+        userRepository.findById(owner.getId());
+        itemService.getItemById(item.getId(), owner.getId());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+        bookingService.update(owner.getId(), booking.getId(), true);
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        assertEquals(booking.getId(), itemService.getItemById(item.getId(), owner.getId()).getNextBooking().getId());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private UserDto createUser(String name) {
+        UserDto user = userService.createUser(new User(null, name, name + "-" + System.nanoTime() + "@shareit.ru"));
+        userIds.add(user.getId());
+        return user;
+    }
+}
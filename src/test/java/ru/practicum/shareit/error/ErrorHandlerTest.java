@@ -0,0 +1,63 @@
+package ru.practicum.shareit.error;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import ru.practicum.shareit.error.baseExceptions.ValidationError;
+import ru.practicum.shareit.request.exceptions.ItemRequestNotFound;
+import ru.practicum.shareit.user.exceptions.UserNotFound;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ErrorHandlerTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ErrorHandler errorHandler = new ErrorHandler(
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class));
+
+    @Test
+    void shouldNotCaptureStackTraceOfDomainExceptions() {
+        assertEquals(0, new UserNotFound("Пользователь с данным id не найден").getStackTrace().length);
+        assertEquals(0, new ValidationError("Невалидная почта").getStackTrace().length);
+    }
+
+    @Test
+    void shouldReuseResponsesForRepeatedMessages() {
+        ErrorResponse first = errorHandler.handleNotFoundException(new UserNotFound("Пользователь с данным id не найден"));
+        ErrorResponse second = errorHandler.handleNotFoundException(new UserNotFound("Пользователь с данным id не найден"));
+
+        assertSame(first, second);
+        assertEquals("Пользователь с данным id не найден", second.getError());
+    }
+
+    @Test
+    void shouldAllocateResponsesForFormattedMessages() {
+        ErrorResponse first = errorHandler.handleNotFoundException(new ItemRequestNotFound("Запрос с id = 1 не найден"));
+        ErrorResponse second = errorHandler.handleNotFoundException(new ItemRequestNotFound("Запрос с id = 1 не найден"));
+
+        assertNotSame(first, second);
+        assertEquals("Запрос с id = 1 не найден", second.getError());
+    }
+
+    @Test
+    void shouldCountErrorsByExceptionAndStatus() {
+        errorHandler.handleNotFoundException(new UserNotFound("Пользователь с данным id не найден"));
+        errorHandler.handleNotFoundException(new UserNotFound("Пользователь с данным id не найден"));
+        errorHandler.handleValidationException(new ValidationError("Невалидная почта"));
+
+        assertEquals(2, meterRegistry.get(ErrorHandler.METRIC)
+                .tag("exception", "UserNotFound")
+                .tag("status", "404")
+                .counter()
+                .count());
+        assertEquals(1, meterRegistry.get(ErrorHandler.METRIC)
+                .tag("exception", "ValidationError")
+                .tag("status", "400")
+                .counter()
+                .count());
+    }
+}
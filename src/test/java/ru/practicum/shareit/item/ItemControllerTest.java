@@ -8,8 +8,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.exceptions.UserNotFound;
+import ru.practicum.shareit.utils.BatchResult;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -17,9 +20,12 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -82,6 +88,24 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable()), Boolean.class));
     }
 
+    @Test
+    void createItems() throws Exception {
+        when(itemService.createItems(any(Long.class), any()))
+                .thenReturn(List.of(BatchResult.created(0, itemDto), BatchResult.rejected(1, "Название предмета не может быть пустым")));
+
+        mvc.perform(post("/items/batch")
+                .content(mapper.writeValueAsString(List.of(itemDto, new ItemDto(null, "", "Описание", true, null, null, null, null, null))))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1)
+        ).andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].created", is(true)))
+                .andExpect(jsonPath("$.[0].value.name", is(itemDto.getName())))
+                .andExpect(jsonPath("$.[1].created", is(false)))
+                .andExpect(jsonPath("$.[1].error", is("Название предмета не может быть пустым")));
+    }
+
     @Test
     void getItem() throws Exception {
         when(itemService.getItemById(any(Long.class), any(Long.class))).thenReturn(itemDto);
@@ -101,8 +125,10 @@ public class ItemControllerTest {
 
     @Test
     void getItemsByOwner() throws Exception {
-        when(itemService.getAllItems(any(Long.class), any(Integer.class), nullable(Integer.class)))
-                .thenReturn(List.of(itemDto));
+        doAnswer(invocation -> {
+            invocation.<Consumer<ItemDto>>getArgument(2).accept(itemDto);
+            return null;
+        }).when(itemService).streamAllItems(any(Long.class), any(Integer.class), any());
 
         mvc.perform(get("/items")
                 .characterEncoding(StandardCharsets.UTF_8)
@@ -118,10 +144,40 @@ public class ItemControllerTest {
     }
 
     @Test
-    void searchItem() throws Exception {
-        when(itemService.searchItems(any(String.class), any(Integer.class), nullable(Integer.class)))
+    void getItemsByOwnerPage() throws Exception {
+        when(itemService.getAllItems(any(Long.class), any(Integer.class), any(Integer.class)))
                 .thenReturn(List.of(itemDto));
 
+        mvc.perform(get("/items?from=0&size=1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1)
+        ).andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Long.class));
+    }
+
+    @Test
+    void getItemsByOwnerWhenUserNotFound() throws Exception {
+        doThrow(new UserNotFound("Пользователь с данным id не найден"))
+                .when(itemService).streamAllItems(any(Long.class), any(Integer.class), any());
+
+        mvc.perform(get("/items")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 99)
+        ).andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Пользователь с данным id не найден")));
+    }
+
+    @Test
+    void searchItem() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<Consumer<ItemDto>>getArgument(2).accept(itemDto);
+            return null;
+        }).when(itemService).streamSearchItems(any(String.class), any(Integer.class), any());
+
         mvc.perform(get("/items/search?text=description")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -181,4 +237,21 @@ public class ItemControllerTest {
                         is(commentDto.getCreated().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
                         ));
     }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 12, 0);
+        when(itemService.getItemAvailability(any(Long.class), any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to, true));
+
+        mvc.perform(get("/items/1/availability")
+                .param("from", from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .param("to", to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1)
+        ).andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.available", is(true), Boolean.class));
+    }
 }
@@ -57,15 +57,6 @@ public class ItemRepositoryJpaTest {
         assertEquals(1, resultItems.toList().size());
     }
 
-    @Test
-    void test_search() {
-        Page<Item> resultItems = itemRepository.search(
-                "тел",
-                page
-        );
-        assertEquals(1, resultItems.toList().size());
-    }
-
     @Test
     void test_findAllByRequestId() {
         User requestor = new User();
@@ -21,7 +21,7 @@ public class ItemServiceImplTest {
 
     @Test
     void shouldThrowExceptionWhenGetItemWithWrongId() {
-        ItemService itemService = new ItemServiceImpl(null, null, null, mockItemRepository, null, null);
+        ItemService itemService = new ItemServiceImpl(null, null, null, mockItemRepository, null, null, null, null, null, null, null);
 
         when(mockItemRepository.findById(any(Long.class)))
                 .thenReturn(Optional.empty());
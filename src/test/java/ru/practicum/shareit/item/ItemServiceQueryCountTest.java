@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.service.RequestLookup;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemServiceQueryCountTest {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+
+    @Test
+    void shouldRunConstantNumberOfQueriesPerPage() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+
+        createBookedItems(owner, booker, 2);
+        long smallPageQueries = countQueries(() -> itemService.getAllItems(owner.getId(), 0, null));
+
+        createBookedItems(owner, booker, 10);
+        long largePageQueries = countQueries(() -> itemService.getAllItems(owner.getId(), 0, null));
+
+        assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    @Test
+    void shouldReturnLastAndNextBookingsAndComments() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+
+        createBookedItems(owner, booker, 3);
+
+        List<ItemDto> items = itemService.getAllItems(owner.getId(), 0, 10);
+        assertEquals(3, items.size());
+        items.forEach(item -> {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            assertEquals(1, item.getComments().size());
+        });
+    }
+
+    @Test
+    void shouldInsertItemsInJdbcBatches() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        userService.getUserById(owner.getId());
+        entityManager.flush();
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> new Item(null, "Item" + i, "Description", true, null, null))
+                .collect(Collectors.toList());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queries = countQueries(() -> {
+            itemService.createItems(owner.getId(), items);
+            entityManager.flush();
+        });
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(queries <= 6, "Выполнено запросов: " + queries);
+    }
+
+    @Test
+    void shouldLookUpItemOwnershipOncePerRequest() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        entityManager.flush();
+
+        assertEquals(2, countQueries(() -> {
+            itemService.getItemOwnership(item.getId());
+            itemService.getItemOwnership(item.getId());
+        }));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestLookup.open(request);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertEquals(1, countQueries(() -> {
+                itemService.getItemOwnership(item.getId());
+                itemService.getItemOwnership(item.getId());
+            }));
+
+            itemService.updateItem(item.getId(), owner.getId(), new Item(null, null, null, false, null, null));
+            entityManager.flush();
+            assertEquals(false, itemService.getItemOwnership(item.getId()).getAvailable());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void createBookedItems(UserDto owner, UserDto booker, int amount) {
+        for (int i = 0; i < amount; i++) {
+            ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Item" + i, "Description", true, null, null));
+
+            BookingDto past = bookingService.create(booker.getId(), new BookingInputDto(
+                    item.getId(),
+                    LocalDateTime.now().minusDays(3),
+                    LocalDateTime.now().minusDays(2)
+            ));
+            bookingService.update(owner.getId(), past.getId(), true);
+
+            BookingDto future = bookingService.create(booker.getId(), new BookingInputDto(
+                    item.getId(),
+                    LocalDateTime.now().plusDays(2),
+                    LocalDateTime.now().plusDays(3)
+            ));
+            bookingService.update(owner.getId(), future.getId(), true);
+
+            itemService.createComment(
+                    new CommentDto(null, "Комментарий", null, null, null),
+                    item.getId(),
+                    booker.getId()
+            );
+        }
+    }
+
+    private long countQueries(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,13 +17,25 @@ import ru.practicum.shareit.item.exceptions.ItemNotFound;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.exceptions.UserNotFound;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResult;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.EntityBatchReader;
+
+import javax.persistence.EntityManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -31,6 +44,7 @@ public class ItemServiceTest {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final EntityManager entityManager;
 
     @Test
     void shouldCreateItem() {
@@ -162,6 +176,37 @@ public class ItemServiceTest {
         assertEquals(1, itemsList.size());
     }
 
+    @Test
+    void shouldNotReturnUnavailableItemsBySearch() {
+        User user = new User(3L, "admin", "admin@shareit.ru");
+        UserDto newUserDto = userService.createUser(user);
+
+        Item item1 = new Item(
+                3L,
+                "Дрель",
+                "Аккумуляторная дрель",
+                true,
+                null,
+                null
+        );
+
+        Item item2 = new Item(
+                4L,
+                "Отвертка",
+                "Аккумуляторная отвертка",
+                false,
+                null,
+                null
+        );
+
+        itemService.createItem(newUserDto.getId(), item1);
+        itemService.createItem(newUserDto.getId(), item2);
+
+        List<ItemDto> itemsList = itemService.searchItems("аккумуляторная", 0, null);
+        assertEquals(1, itemsList.size());
+        assertEquals("Дрель", itemsList.get(0).getName());
+    }
+
     @Test
     void shouldCreateComment() {
         User user = new User(3L, "admin", "admin@shareit.ru");
@@ -458,4 +503,97 @@ public class ItemServiceTest {
 
         assertEquals(1, itemService.getAllItems(newUserDto.getId(), 0, 1).size());
     }
+
+    @Test
+    void shouldReturnAllItemsByCursor() {
+        User user = new User(3L, "admin", "admin@shareit.ru");
+        UserDto newUserDto = userService.createUser(user);
+
+        for (int i = 0; i < 3; i++) {
+            itemService.createItem(newUserDto.getId(), new Item(null, "Item" + i, "Description", true, null, null));
+        }
+
+        CursorPage<ItemDto> firstPage = itemService.getAllItemsAfter(newUserDto.getId(), null, 2);
+        assertEquals(2, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPage<ItemDto> secondPage = itemService.getAllItemsAfter(newUserDto.getId(), firstPage.getNextCursor(), 2);
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals("Item2", secondPage.getItems().get(0).getName());
+        assertNull(secondPage.getNextCursor());
+
+        CursorPage<ItemDto> searchPage = itemService.searchItemsAfter("item", firstPage.getNextCursor(), 2);
+        assertEquals(1, searchPage.getItems().size());
+        assertNull(searchPage.getNextCursor());
+    }
+
+    @Test
+    void shouldStreamAllItemsInBatches() {
+        UserDto owner = userService.createUser(new User(null, "admin", "admin@shareit.ru"));
+        int itemsCount = EntityBatchReader.BATCH_SIZE * 5 + 50;
+        for (int i = 0; i < itemsCount; i++) {
+            itemService.createItem(owner.getId(), new Item(null, "Item" + i, "Description", true, null, null));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemDto> streamed = new ArrayList<>();
+        List<Integer> managedEntities = new ArrayList<>();
+        itemService.streamAllItems(owner.getId(), 5, item -> {
+            streamed.add(item);
+            managedEntities.add(entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        });
+
+        assertEquals(itemsCount - 5, streamed.size());
+        assertEquals(
+                itemService.getAllItems(owner.getId(), 5, null).stream().map(ItemDto::getId).collect(Collectors.toList()),
+                streamed.stream().map(ItemDto::getId).collect(Collectors.toList())
+        );
+        assertTrue(managedEntities.stream().allMatch(count -> count <= EntityBatchReader.BATCH_SIZE * 2));
+    }
+
+    @Test
+    void shouldStreamSearchResults() {
+        UserDto owner = userService.createUser(new User(null, "admin", "admin@shareit.ru"));
+        itemService.createItem(owner.getId(), new Item(null, "Дрель", "Ударная", true, null, null));
+        itemService.createItem(owner.getId(), new Item(null, "Дрель", "Аккумуляторная", true, null, null));
+        itemService.createItem(owner.getId(), new Item(null, "Пила", "Ручная", true, null, null));
+
+        List<ItemDto> streamed = new ArrayList<>();
+        itemService.streamSearchItems("дрель", 1, streamed::add);
+        assertEquals(1, streamed.size());
+        assertEquals("Аккумуляторная", streamed.get(0).getDescription());
+
+        List<ItemDto> blank = new ArrayList<>();
+        itemService.streamSearchItems(" ", 0, blank::add);
+        assertTrue(blank.isEmpty());
+    }
+
+    @Test
+    void shouldCreateItemsInBatchWithPerRowResults() {
+        UserDto owner = userService.createUser(new User(null, "admin", "admin@shareit.ru"));
+
+        List<BatchResult<ItemDto>> results = itemService.createItems(owner.getId(), Arrays.asList(
+                new Item(null, "Дрель", "Ударная", true, null, null),
+                new Item(null, "", "Без названия", true, null, null),
+                new Item(null, "Пила", null, true, null, null),
+                new Item(null, "Лестница", "Складная", null, null, null),
+                new Item(100L, "Палатка", "Четырёхместная", false, null, 7L)
+        ));
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isCreated());
+        assertEquals(owner.getId(), results.get(0).getValue().getOwner().getId());
+        assertEquals("Название предмета не может быть пустым", results.get(1).getError());
+        assertEquals("Описание предмета не может быть пустым", results.get(2).getError());
+        assertEquals("Не указана доступность предмета", results.get(3).getError());
+        assertTrue(results.get(4).isCreated());
+        assertEquals(7L, results.get(4).getValue().getRequestId());
+
+        assertEquals(2, itemService.getAllItems(owner.getId(), 0, 10).size());
+        assertEquals(1, itemService.searchItems("дрель", 0, null).size());
+
+        assertThrows(UserNotFound.class, () -> itemService.createItems(-1L, List.of()));
+    }
 }
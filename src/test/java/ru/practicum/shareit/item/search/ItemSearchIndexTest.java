@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(null);
+        index.index(new Item(1L, "Телескоп", "Очень мощный телескоп", true, null, null));
+        index.index(new Item(2L, "Аккумуляторная дрель", "Дрель + аккумулятор", true, null, null));
+        index.index(new Item(3L, "Дрель", "Простая дрель", false, null, null));
+        index.index(new Item(4L, "Отвертка", "Аккумуляторная отвертка", true, null, null));
+    }
+
+    @Test
+    void shouldFindByPrefixIgnoringCase() {
+        assertEquals(List.of(1L), index.search("тЕЛ"));
+        assertEquals(List.of(2L, 4L), index.search("АККУМ"));
+    }
+
+    @Test
+    void shouldIntersectQueryTokens() {
+        assertEquals(List.of(2L), index.search("дрель аккумулятор"));
+        assertTrue(index.search("дрель телескоп").isEmpty());
+    }
+
+    @Test
+    void shouldSkipUnavailableItems() {
+        assertEquals(List.of(2L), index.search("дрель"));
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        index.index(new Item(1L, "Бинокль", "Бинокль", true, null, null));
+
+        assertTrue(index.search("телескоп").isEmpty());
+        assertEquals(List.of(1L), index.search("бинокль"));
+    }
+
+    @Test
+    void shouldRemoveItem() {
+        index.remove(2L);
+
+        assertEquals(List.of(4L), index.search("аккумуляторная"));
+    }
+
+    @Test
+    void shouldReturnEmptyListForBlankQuery() {
+        assertTrue(index.search(" , ").isEmpty());
+    }
+}
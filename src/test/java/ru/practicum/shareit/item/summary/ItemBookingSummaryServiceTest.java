@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemBookingSummaryServiceTest {
+    private final ItemBookingSummaryService summaryService;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+
+    @Test
+    void shouldUpdateSummaryOnApproveAndCancel() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        BookingDto past = book(booker, item, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2));
+        BookingDto future = book(booker, item, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+
+        bookingService.update(owner.getId(), past.getId(), true);
+        bookingService.update(owner.getId(), future.getId(), true);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(past.getId(), summary.getLastBookingId());
+        assertEquals(future.getId(), summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+
+        bookingService.update(booker.getId(), future.getId(), false);
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(past.getId(), summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+
+        ItemDto ownerView = itemService.getItemById(item.getId(), owner.getId());
+        assertEquals(past.getId(), ownerView.getLastBooking().getId());
+        assertNull(ownerView.getNextBooking());
+    }
+
+    @Test
+    void shouldKeepOtherEntitiesManagedOnRefresh() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        BookingDto booking = book(booker, item, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        bookingService.update(owner.getId(), booking.getId(), true);
+
+        Booking managed = bookingRepository.findById(booking.getId()).orElseThrow();
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+
+        summaryService.refresh(List.of(item.getId()));
+
+        assertTrue(entityManager.contains(managed));
+        assertTrue(entityManager.contains(managed.getItem()));
+        assertFalse(entityManager.contains(summary));
+        assertEquals(booking.getId(), summaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+    }
+
+    @Test
+    void shouldRollSummaryForwardWhenNextBookingStarts() {
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+        ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        BookingDto first = book(booker, item, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        BookingDto second = book(booker, item, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4));
+        bookingService.update(owner.getId(), first.getId(), true);
+        bookingService.update(owner.getId(), second.getId(), true);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBookingId());
+        assertEquals(first.getId(), summary.getNextBookingId());
+
+        summaryService.rollForward(LocalDateTime.now().plusDays(2));
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(first.getId(), summary.getLastBookingId());
+        assertEquals(second.getId(), summary.getNextBookingId());
+    }
+
+    private BookingDto book(UserDto booker, ItemDto item, LocalDateTime start, LocalDateTime end) {
+        return bookingService.create(booker.getId(), new BookingInputDto(item.getId(), start, end));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SamplingTurboFilterTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger sqlLogger = context.getLogger("org.hibernate.SQL");
+    private final Logger otherLogger = context.getLogger("ru.practicum.shareit");
+
+    @Test
+    void shouldDropEveryEventWithZeroRate() {
+        SamplingTurboFilter filter = filter(0);
+
+        assertEquals(FilterReply.DENY, filter.decide(null, sqlLogger, Level.DEBUG, "select 1", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, otherLogger, Level.DEBUG, "select 1", null, null));
+    }
+
+    @Test
+    void shouldKeepEveryEventWithFullRate() {
+        assertEquals(FilterReply.NEUTRAL, filter(1).decide(null, sqlLogger, Level.DEBUG, "select 1", null, null));
+    }
+
+    @Test
+    void shouldNotSampleLevelChecks() {
+        assertEquals(FilterReply.NEUTRAL, filter(0).decide(null, sqlLogger, Level.DEBUG, null, null, null));
+    }
+
+    @Test
+    void shouldLogAsynchronouslyWithProductionConfiguration() throws Exception {
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getResource("/logback-prod.xml"));
+
+        assertInstanceOf(AsyncAppender.class, context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC"));
+        assertInstanceOf(SamplingTurboFilter.class, context.getTurboFilterList().get(0));
+        assertTrue(sqlLogger.isDebugEnabled());
+    }
+
+    private SamplingTurboFilter filter(double rate) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setLoggerName("org.hibernate.SQL");
+        filter.setRate(rate);
+        filter.start();
+        return filter;
+    }
+}
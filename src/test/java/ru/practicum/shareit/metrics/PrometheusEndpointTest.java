@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserCache;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.server.port=")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PrometheusEndpointTest {
+    private final MockMvc mvc;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", "metrics@shareit.ru");
+        entityManagerFactory.getCache().evictAll();
+        userCache.clear();
+    }
+
+    @Test
+    void shouldExportControllerServiceRepositoryAndHibernateMetrics() throws Exception {
+        mvc.perform(post("/users")
+                        .content("{\"name\": \"metrics\", \"email\": \"metrics@shareit.ru\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users/{id}", -1))
+                .andExpect(status().isNotFound());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/users/{id}\"")))
+                .andExpect(content().string(containsString("shareit_service_seconds_count{application=\"shareit\",exception=\"UserNotFound\",method=\"getUserETag\",service=\"UserServiceImpl\",}")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("shareit_http_queries_count{application=\"shareit\",method=\"POST\",uri=\"/users\",}")))
+                .andExpect(content().string(containsString("hibernate_statements_total{")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("shareit_user_cache_total{application=\"shareit\",result=\"miss\",}")));
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements an action runs on the current thread.
+ * MockMvc executes requests on the calling thread, so a controller test can wrap {@code mvc.perform(...)}.
+ */
+public final class QueryCountAssertions {
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertStatementCount(long expected, Action<T> action) throws Exception {
+        QueryCounter.reset();
+        T result = action.run();
+        assertEquals(expected, QueryCounter.get(), "Выполнено SQL-запросов: " + QueryCounter.get());
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.QueryCountAssertions.assertStatementCount;
+
+@SpringBootTest(properties = "shareit.sql-budget.max-statements=1")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RequestQueryBudgetTest {
+    private final MockMvc mvc;
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserCache userCache;
+
+    private UserDto owner;
+
+    @AfterEach
+    void cleanUp() {
+        if (owner != null) {
+            jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", owner.getId());
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        itemSearchIndex.rebuild();
+        userCache.clear();
+    }
+
+    @Test
+    void shouldPinStatementsOfItemListingAndFlagRequestsOverBudget() throws Exception {
+        owner = userService.createUser(new User(null, "owner", "budget@shareit.ru"));
+        for (int i = 0; i < 3; i++) {
+            itemService.createItem(owner.getId(), new Item(null, "Вещь" + i, "Описание", true, null, null));
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        userCache.clear();
+
+        assertStatementCount(4, () -> mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3)));
+
+        Counter overBudget = meterRegistry.find(RequestQueryMetricsFilter.OVER_BUDGET_METRIC)
+                .tag("uri", "/items")
+                .counter();
+        assertNotNull(overBudget);
+        assertEquals(1, overBudget.count());
+
+        // The owner was cached by the listing above
+        assertStatementCount(0, () -> mvc.perform(get("/users/{id}", owner.getId()))
+                .andExpect(status().isOk()));
+
+        assertNull(meterRegistry.find(RequestQueryMetricsFilter.OVER_BUDGET_METRIC).tag("uri", "/users/{id}").counter());
+    }
+
+    @Test
+    void shouldGroupStatementsThatDifferOnlyInParameterLists() {
+        QueryCounter counter = new QueryCounter();
+        QueryCounter.reset();
+
+        counter.inspect("select * from items where id in (?, ?)");
+        counter.inspect("select * from items where id in (?,?,?)");
+        counter.inspect("select * from users where id=?");
+
+        assertEquals(3, QueryCounter.get());
+        assertEquals(Map.of("select * from items where id in (?...)", 2), QueryCounter.repeated(2));
+    }
+}
@@ -15,10 +15,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -92,9 +93,10 @@ public class RequestControllerTest {
 
     @Test
     void getItemRequests() throws Exception {
-        when(itemRequestService.getAllItemRequests(
-                any(Long.class), any(Integer.class), nullable(Integer.class))
-        ).thenReturn(List.of(itemRequestDto));
+        doAnswer(invocation -> {
+            invocation.<Consumer<ItemRequestDto>>getArgument(2).accept(itemRequestDto);
+            return null;
+        }).when(itemRequestService).streamAllItemRequests(any(Long.class), any(Integer.class), any());
 
         mvc.perform(get("/requests/all")
                 .characterEncoding(StandardCharsets.UTF_8)
@@ -34,7 +34,7 @@ public class RequestServiceImplTest {
 
     @Test
     void shouldThrowExceptionItemRequestNotFound() {
-        ItemRequestService itemRequestService = new ItemRequestServiceImpl(null, validationService, mockItemRequestRepository, null);
+        ItemRequestService itemRequestService = new ItemRequestServiceImpl(null, validationService, mockItemRequestRepository, null, null);
 
         when(validationService.getUserById(any(Long.class))).thenReturn(user);
 
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RequestServiceQueryCountTest {
+    private final ItemRequestService itemRequestService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+
+    @Test
+    void shouldRunConstantNumberOfQueriesPerPage() {
+        UserDto requestor = userService.createUser(new User(null, "requestor", "requestor@shareit.ru"));
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+
+        createAnsweredRequests(requestor, owner, booker, 2);
+        long smallOwnQueries = countQueries(() -> itemRequestService.getOwnItemRequests(requestor.getId()));
+        long smallAllQueries = countQueries(() -> itemRequestService.getAllItemRequests(owner.getId(), 0, 20));
+
+        createAnsweredRequests(requestor, owner, booker, 10);
+        long largeOwnQueries = countQueries(() -> itemRequestService.getOwnItemRequests(requestor.getId()));
+        long largeAllQueries = countQueries(() -> itemRequestService.getAllItemRequests(owner.getId(), 0, 20));
+
+        assertEquals(smallOwnQueries, largeOwnQueries);
+        assertEquals(smallAllQueries, largeAllQueries);
+    }
+
+    @Test
+    void shouldReturnItemsWithCommentsForEveryRequest() {
+        UserDto requestor = userService.createUser(new User(null, "requestor", "requestor@shareit.ru"));
+        UserDto owner = userService.createUser(new User(null, "owner", "owner@shareit.ru"));
+        UserDto booker = userService.createUser(new User(null, "booker", "booker@shareit.ru"));
+
+        createAnsweredRequests(requestor, owner, booker, 3);
+
+        List<ItemRequestDto> requests = itemRequestService.getOwnItemRequests(requestor.getId());
+        assertEquals(3, requests.size());
+        requests.forEach(request -> {
+            assertEquals(2, request.getItems().size());
+            request.getItems().forEach(item -> {
+                assertEquals(request.getId(), item.getRequestId());
+                assertEquals(1, item.getComments().size());
+            });
+        });
+    }
+
+    private void createAnsweredRequests(UserDto requestor, UserDto owner, UserDto booker, int amount) {
+        for (int i = 0; i < amount; i++) {
+            ItemRequestDto request = itemRequestService.create(
+                    new ItemRequestDto(null, "Нужна вещь " + i, null, null, null),
+                    requestor.getId()
+            );
+
+            for (int j = 0; j < 2; j++) {
+                ItemDto item = itemService.createItem(owner.getId(), new Item(null, "Вещь " + i + j, "Описание", true, null, request.getId()));
+
+                BookingDto booking = bookingService.create(booker.getId(), new BookingInputDto(
+                        item.getId(),
+                        LocalDateTime.now().minusDays(3),
+                        LocalDateTime.now().minusDays(2)
+                ));
+                bookingService.update(owner.getId(), booking.getId(), true);
+                itemService.createComment(new CommentDto(null, "Комментарий", null, null, null), item.getId(), booker.getId());
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countQueries(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
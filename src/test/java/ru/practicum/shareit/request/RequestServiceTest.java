@@ -11,10 +11,15 @@ import ru.practicum.shareit.service.MapperService;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exceptions.UserNotFound;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -123,4 +128,41 @@ public class RequestServiceTest {
 
         assertEquals(1, itemRequestService.getAllItemRequests(user.getId(), 0, 1).size());
     }
+
+    @Test
+    void shouldStreamAllItemRequests() {
+        UserDto user = userService.createUser(mapperService.toUser(userDto1));
+        UserDto user1 = userService.createUser(mapperService.toUser(userDto2));
+
+        for (int i = 0; i < 3; i++) {
+            itemRequestService.create(new ItemRequestDto(null, "Запрос" + i, null, null, null), user1.getId());
+        }
+        itemRequestService.create(new ItemRequestDto(null, "Свой запрос", null, null, null), user.getId());
+
+        List<ItemRequestDto> streamed = new ArrayList<>();
+        itemRequestService.streamAllItemRequests(user.getId(), 1, streamed::add);
+        assertEquals(2, streamed.size());
+        assertEquals("Запрос1", streamed.get(0).getDescription());
+        assertEquals("Запрос0", streamed.get(1).getDescription());
+    }
+
+    @Test
+    void shouldReturnAllItemRequestsByCursor() {
+        UserDto user = userService.createUser(mapperService.toUser(userDto1));
+        UserDto user1 = userService.createUser(mapperService.toUser(userDto2));
+
+        for (int i = 0; i < 3; i++) {
+            itemRequestService.create(new ItemRequestDto(null, "Запрос" + i, null, null, null), user1.getId());
+        }
+
+        CursorPage<ItemRequestDto> firstPage = itemRequestService.getAllItemRequestsAfter(user.getId(), null, 2);
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals("Запрос2", firstPage.getItems().get(0).getDescription());
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPage<ItemRequestDto> secondPage = itemRequestService.getAllItemRequestsAfter(user.getId(), firstPage.getNextCursor(), 2);
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals("Запрос0", secondPage.getItems().get(0).getDescription());
+        assertNull(secondPage.getNextCursor());
+    }
 }
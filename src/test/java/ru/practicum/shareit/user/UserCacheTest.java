@@ -0,0 +1,96 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserCacheTest {
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1), now::get);
+
+        assertFalse(cache.get(1L).isPresent());
+        cache.put(new UserDto(1L, "Admin", "admin@shareit.ru"));
+        assertEquals("Admin", cache.get(1L).get().getName());
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void shouldPublishCountersAsMeters() {
+        UserCache cache = new UserCache(1, Duration.ofMinutes(1), now::get);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(1L);
+        cache.put(new UserDto(1L, "Admin", "admin@shareit.ru"));
+        cache.get(1L);
+        cache.put(new UserDto(2L, "User", "user@shareit.ru"));
+
+        assertEquals(1, registry.get("shareit.user.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("shareit.user.cache").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("shareit.user.cache.evictions").functionCounter().count());
+        assertEquals(1, registry.get("shareit.user.cache.size").gauge().value());
+    }
+
+    @Test
+    void shouldReturnCopiesOfCachedUsers() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1), now::get);
+        UserDto user = new UserDto(1L, "Admin", "admin@shareit.ru");
+        cache.put(user);
+
+        user.setName("Changed");
+        cache.get(1L).get().setName("Changed again");
+
+        assertEquals("Admin", cache.get(1L).get().getName());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUser() {
+        UserCache cache = new UserCache(2, Duration.ofMinutes(1), now::get);
+        cache.put(new UserDto(1L, "First", "first@shareit.ru"));
+        cache.put(new UserDto(2L, "Second", "second@shareit.ru"));
+        cache.get(1L);
+        cache.put(new UserDto(3L, "Third", "third@shareit.ru"));
+
+        assertTrue(cache.get(1L).isPresent());
+        assertFalse(cache.get(2L).isPresent());
+        assertTrue(cache.get(3L).isPresent());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void shouldExpireUsersAfterTtl() {
+        UserCache cache = new UserCache(10, Duration.ofSeconds(30), now::get);
+        cache.put(new UserDto(1L, "Admin", "admin@shareit.ru"));
+
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertTrue(cache.get(1L).isPresent());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertFalse(cache.get(1L).isPresent());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldInvalidateUser() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1), now::get);
+        cache.put(new UserDto(1L, "Admin", "admin@shareit.ru"));
+        cache.invalidate(1L);
+
+        assertFalse(cache.get(1L).isPresent());
+    }
+}
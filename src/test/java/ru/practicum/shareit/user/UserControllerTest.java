@@ -8,6 +8,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.BatchResult;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -51,6 +52,25 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(userDto.getEmail()), String.class));
     }
 
+    @Test
+    void createUsers() throws Exception {
+        when(userService.createUsers(any()))
+                .thenReturn(List.of(BatchResult.created(0, userDto), BatchResult.rejected(1, "Невалидная почта")));
+
+        mvc.perform(post("/users/batch")
+                .content(mapper.writeValueAsString(List.of(userDto, new UserDto(null, "Test", "invalid"))))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].index", is(0)))
+                .andExpect(jsonPath("$.[0].created", is(true)))
+                .andExpect(jsonPath("$.[0].value.id", is(userDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[1].index", is(1)))
+                .andExpect(jsonPath("$.[1].created", is(false)))
+                .andExpect(jsonPath("$.[1].error", is("Невалидная почта")));
+    }
+
     @Test
     void getUser() throws Exception {
         when(userService.getUserById(any(Long.class)))
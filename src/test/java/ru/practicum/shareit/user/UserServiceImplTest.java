@@ -6,8 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.service.RequestLookup;
 import ru.practicum.shareit.user.exceptions.UserNotFound;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -21,7 +23,7 @@ public class UserServiceImplTest {
 
     @Test
     void shouldThrowExceptionWhenUserNotFound() {
-        UserService userService = new UserServiceImpl(mockUserRepository, null);
+        UserService userService = new UserServiceImpl(mockUserRepository, null, new UserCache(100, Duration.ofMinutes(5)), new RequestLookup());
 
         when(mockUserRepository.findById(any(Long.class)))
                 .thenReturn(Optional.empty());
@@ -9,9 +9,16 @@ import ru.practicum.shareit.service.MapperService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exceptions.UserNotFound;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResult;
+
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -19,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceTest {
     private final MapperService mapperService;
     private final UserService userService;
+    private final UserCache userCache;
     private User user = new User(1L, "Admin", "admin@shareit.ru");
 
     @Test
@@ -70,4 +78,64 @@ public class UserServiceTest {
         userService.deleteUser(userDto.getId());
         assertEquals(size - 1, userService.getAllUsers().size());
     }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        UserDto userDto = userService.createUser(user);
+
+        userService.getUserById(userDto.getId());
+        long hits = userCache.getHits();
+        UserDto cachedUser = userService.getUserById(userDto.getId());
+
+        assertEquals(hits + 1, userCache.getHits());
+        assertEquals(userDto, cachedUser);
+    }
+
+    @Test
+    void shouldInvalidateCacheOnUpdateAndDelete() {
+        UserDto userDto = userService.createUser(user);
+        userService.getUserById(userDto.getId());
+
+        userService.updateUser(userDto.getId(), new User(null, "Updated", null));
+        assertEquals("Updated", userService.getUserById(userDto.getId()).getName());
+
+        userService.deleteUser(userDto.getId());
+        assertThrows(
+                UserNotFound.class,
+                () -> userService.getUserById(userDto.getId())
+        );
+    }
+
+    @Test
+    void shouldCreateUsersInBatchWithPerRowResults() {
+        userService.createUser(user);
+
+        List<BatchResult<UserDto>> results = userService.createUsers(Arrays.asList(
+                new User(null, "Первый", "first@shareit.ru"),
+                new User(null, "Без почты", "invalid"),
+                new User(null, "Повтор", "first@shareit.ru"),
+                new User(null, "Занятая почта", user.getEmail()),
+                new User(null, " ", "blank@shareit.ru"),
+                null,
+                new User(5L, "Второй", "second@shareit.ru")
+        ));
+
+        assertEquals(7, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+
+        assertTrue(results.get(0).isCreated());
+        assertNotNull(results.get(0).getValue().getId());
+        assertEquals("Невалидная почта", results.get(1).getError());
+        assertEquals("Пользователь с такой почтой уже существует", results.get(2).getError());
+        assertEquals("Пользователь с такой почтой уже существует", results.get(3).getError());
+        assertEquals("Имя пользователя не может быть пустым", results.get(4).getError());
+        assertEquals("Пустая запись", results.get(5).getError());
+        assertFalse(results.get(5).isCreated());
+        assertTrue(results.get(6).isCreated());
+
+        assertEquals("Второй", userService.getUserById(results.get(6).getValue().getId()).getName());
+        assertEquals(3, userService.getAllUsers().size());
+    }
 }
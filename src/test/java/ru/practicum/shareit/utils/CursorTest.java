@@ -0,0 +1,40 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.baseExceptions.ValidationError;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorTest {
+
+    @Test
+    public void shouldDecodeEncodedCursorWithTimestamp() {
+        LocalDateTime timestamp = LocalDateTime.of(2023, 2, 1, 10, 30, 15);
+
+        Cursor cursor = Cursor.decode(Cursor.of(timestamp, 42L).encode());
+        assertThat(cursor.getTimestamp()).isEqualTo(timestamp);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    public void shouldDecodeEncodedCursorWithIdOnly() {
+        Cursor cursor = Cursor.decode(Cursor.of(7L).encode());
+        assertThat(cursor.getTimestamp()).isNull();
+        assertThat(cursor.getId()).isEqualTo(7L);
+    }
+
+    @Test
+    public void shouldReturnNullWhenCursorIsAbsent() {
+        assertThat(Cursor.decode(null)).isNull();
+        assertThat(Cursor.decode("")).isNull();
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenCursorIsMalformed() {
+        assertThrows(ValidationError.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(ValidationError.class, () -> Cursor.decodeWithTimestamp(Cursor.of(7L).encode()));
+    }
+}
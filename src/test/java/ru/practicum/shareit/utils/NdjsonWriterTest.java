@@ -0,0 +1,26 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NdjsonWriterTest {
+    @Test
+    void shouldAcceptGzipWhenListedWithPositiveQuality() {
+        assertTrue(NdjsonWriter.acceptsGzip("gzip, deflate"));
+        assertTrue(NdjsonWriter.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        assertTrue(NdjsonWriter.acceptsGzip("x-gzip"));
+        assertTrue(NdjsonWriter.acceptsGzip("br, *;q=0.1"));
+    }
+
+    @Test
+    void shouldRefuseGzipWhenExcludedOrMissing() {
+        assertFalse(NdjsonWriter.acceptsGzip(null));
+        assertFalse(NdjsonWriter.acceptsGzip(""));
+        assertFalse(NdjsonWriter.acceptsGzip("deflate, br"));
+        assertFalse(NdjsonWriter.acceptsGzip("gzip;q=0"));
+        assertFalse(NdjsonWriter.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(NdjsonWriter.acceptsGzip("identity, *;q=0"));
+    }
+}